@@ -0,0 +1,84 @@
+package com.siemens.internship;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Boots the application on a random port against a private in-memory H2 database and seeds
+ * {@code dataSize} items once per trial. Shared by all benchmark threads.
+ */
+@State(Scope.Benchmark)
+public class ItemBenchmarkState {
+
+    private static final int SEED_BATCH = 1000;
+
+    @Param({"1000", "10000"})
+    public int dataSize;
+
+    ConfigurableApplicationContext context;
+    ItemService itemService;
+    ItemRepository itemRepository;
+    String baseUrl;
+    long[] ids;
+
+    @Setup(Level.Trial)
+    public void start() {
+        // Passed as command-line arguments so they take precedence over application.properties
+        context = new SpringApplicationBuilder(InternshipApplication.class)
+                .logStartupInfo(false)
+                .run(
+                        "--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:jmh-" + UUID.randomUUID(),
+                        "--items.processing.simulated-delay-ms=0",
+                        "--logging.level.root=WARN");
+        itemService = context.getBean(ItemService.class);
+        itemRepository = context.getBean(ItemRepository.class);
+        baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/api/items";
+        seed(context.getBean(TransactionTemplate.class));
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    long randomId() {
+        return ids[ThreadLocalRandom.current().nextInt(ids.length)];
+    }
+
+    static Item newItem() {
+        return new Item(null, "Benchmark", "Created by JMH", "NEW", "bench@jmh.com");
+    }
+
+    // Distinct names and emails so searches have something to select; 1% of the rows are in REVIEW
+    static Item seedItem(int n) {
+        return new Item(null, "Item " + n, "Seeded by JMH", n % 100 == 0 ? "REVIEW" : "NEW", "user" + n + "@jmh.com");
+    }
+
+    private void seed(TransactionTemplate transactionTemplate) {
+        ids = new long[dataSize];
+        for (int from = 0; from < dataSize; from += SEED_BATCH) {
+            int size = Math.min(SEED_BATCH, dataSize - from);
+            List<Item> batch = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                batch.add(seedItem(from + i));
+            }
+            List<Item> saved = transactionTemplate.execute(status -> itemRepository.saveAll(batch));
+            for (int i = 0; i < size; i++) {
+                ids[from + i] = saved.get(i).getId();
+            }
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.siemens.internship;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full HTTP round trips through Tomcat, Spring MVC and Jackson to the embedded H2 database.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ItemHttpBenchmark {
+
+    private static final int BULK_SIZE = 1000;
+
+    private static final String ITEM_JSON = "{\"name\":\"Benchmark\",\"description\":\"Created by JMH\",\"status\":\"NEW\",\"email\":\"bench@jmh.com\"}";
+    private static final String BULK_JSON = "[" + String.join(",", Collections.nCopies(BULK_SIZE, ITEM_JSON)) + "]";
+
+    // One client per benchmark thread, so connection pooling does not serialize the threads
+    @State(Scope.Thread)
+    public static class Client {
+        HttpClient http;
+
+        @Setup
+        public void start() {
+            // HTTP/1.1 keep-alive; the default would send an h2c upgrade header with every request
+            http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        }
+    }
+
+    @Benchmark
+    public int getItemById(ItemBenchmarkState state, Client client) throws Exception {
+        return send(client, HttpRequest.newBuilder(URI.create(state.baseUrl + "/" + state.randomId())).GET().build());
+    }
+
+    @Benchmark
+    public int getFirstPage(ItemBenchmarkState state, Client client) throws Exception {
+        return send(client, HttpRequest.newBuilder(URI.create(state.baseUrl + "?limit=100")).GET().build());
+    }
+
+    @Benchmark
+    public int createItem(ItemBenchmarkState state, Client client) throws Exception {
+        return send(client, HttpRequest.newBuilder(URI.create(state.baseUrl))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(ITEM_JSON))
+                .build());
+    }
+
+    // Scored per item, so it compares directly with createItem
+    @Benchmark
+    @OperationsPerInvocation(BULK_SIZE)
+    public int createItemsBulk(ItemBenchmarkState state, Client client) throws Exception {
+        return send(client, HttpRequest.newBuilder(URI.create(state.baseUrl + "/bulk"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(BULK_JSON))
+                .build());
+    }
+
+    private static int send(Client client, HttpRequest request) throws Exception {
+        HttpResponse<byte[]> response = client.http.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() >= 400) {
+            throw new IllegalStateException("HTTP " + response.statusCode() + " for " + request.uri());
+        }
+        return response.body().length;
+    }
+}
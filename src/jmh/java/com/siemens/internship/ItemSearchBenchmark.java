@@ -0,0 +1,57 @@
+package com.siemens.internship;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of the indexed search against table size: run with several sizes, e.g.
+ * {@code -Djmh.includes=ItemSearchBenchmark -Djmh.dataSize=1000,10000,100000}.
+ * Indexed searches should stay roughly flat as dataSize grows, while
+ * {@link #filterInMemory} (the old fetch-everything approach) grows linearly.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ItemSearchBenchmark {
+
+    private static final int PAGE = 100;
+
+    @Benchmark
+    public List<ItemSummary> searchByStatus(ItemBenchmarkState state) {
+        return state.itemService.search(new ItemSearchCriteria("REVIEW", null, null, null), Long.MIN_VALUE, PAGE);
+    }
+
+    @Benchmark
+    public List<ItemSummary> searchByEmail(ItemBenchmarkState state) {
+        String email = "user" + ThreadLocalRandom.current().nextInt(state.dataSize) + "@jmh.com";
+        return state.itemService.search(new ItemSearchCriteria(null, email, null, null), Long.MIN_VALUE, PAGE);
+    }
+
+    @Benchmark
+    public List<ItemSummary> searchByEmailPrefix(ItemBenchmarkState state) {
+        return state.itemService.search(new ItemSearchCriteria(null, null, "user12", null), Long.MIN_VALUE, PAGE);
+    }
+
+    @Benchmark
+    public List<ItemSummary> searchByNamePrefix(ItemBenchmarkState state) {
+        return state.itemService.search(new ItemSearchCriteria(null, null, null, "Item 7"), Long.MIN_VALUE, PAGE);
+    }
+
+    // Baseline: what clients had to do before the search endpoint existed
+    @Benchmark
+    public List<Item> filterInMemory(ItemBenchmarkState state) {
+        return state.itemService.findAll().stream()
+                .filter(item -> "REVIEW".equals(item.getStatus()))
+                .limit(PAGE)
+                .toList();
+    }
+}
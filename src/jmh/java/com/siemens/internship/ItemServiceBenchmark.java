@@ -0,0 +1,60 @@
+package com.siemens.internship;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service and repository hot paths: single-item writes and reads, full listing and processing runs.
+ * Thread count comes from the JMH -t option (jmh.threads in the benchmark profile).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ItemServiceBenchmark {
+
+    @Benchmark
+    public Item save(ItemBenchmarkState state) {
+        return state.itemService.save(ItemBenchmarkState.newItem());
+    }
+
+    // Goes through the item cache, so this is mostly the hit path
+    @Benchmark
+    public Optional<Item> findById(ItemBenchmarkState state) {
+        return state.itemService.findById(state.randomId());
+    }
+
+    @Benchmark
+    public Optional<Item> findByIdUncached(ItemBenchmarkState state) {
+        return state.itemRepository.findById(state.randomId());
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public List<Item> findAll(ItemBenchmarkState state) {
+        return state.itemService.findAll();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public List<Item> processItemsAsync(ItemBenchmarkState state) throws Exception {
+        return state.itemService.processItemsAsync().get();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public ProcessingSummary processChunkedSummary(ItemBenchmarkState state) throws Exception {
+        return state.itemService.processAsync(new ProcessingOptions(ProcessingMode.CHUNKED, 500, false), false).get().toSummary();
+    }
+}
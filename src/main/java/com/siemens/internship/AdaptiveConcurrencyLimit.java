@@ -0,0 +1,93 @@
+package com.siemens.internship;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Concurrency limit that adapts to observed latency, AIMD style (additive increase, multiplicative decrease).
+ * Every request completing within the latency threshold raises the limit by 1/limit, i.e. by about one per
+ * limit's worth of requests; a request that is slower than the threshold or fails cuts it by the backoff
+ * ratio. Requests admitted before the last cut do not cut it again, so one overload episode shrinks the
+ * limit once rather than once per request that was already queued.
+ */
+public class AdaptiveConcurrencyLimit {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+    private final double backoffRatio;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    // Guarded by this; admission only reads the rounded-down copy
+    private double limit;
+    private long lastBackoffNanos = System.nanoTime();
+    private volatile int currentLimit;
+
+    /**
+     * @param initialLimit       limit before any request completed
+     * @param minLimit           lower bound, at least 1 so the group never stops admitting completely
+     * @param maxLimit           upper bound
+     * @param latencyThresholdMs requests slower than this count as a sign of overload
+     * @param backoffRatio       factor applied to the limit on overload, between 0 and 1
+     */
+    public AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, long latencyThresholdMs, double backoffRatio) {
+        if (minLimit < 1 || maxLimit < minLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Limits must satisfy 1 <= min <= initial <= max");
+        }
+        if (backoffRatio <= 0 || backoffRatio >= 1) {
+            throw new IllegalArgumentException("backoffRatio must be between 0 and 1");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyThresholdNanos = latencyThresholdMs * 1_000_000;
+        this.backoffRatio = backoffRatio;
+        this.limit = initialLimit;
+        this.currentLimit = initialLimit;
+    }
+
+    /**
+     * @return true if the request is admitted and must be followed by {@link #release}, false if the limit is reached
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= currentLimit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Ends an admitted request and adapts the limit to how it went.
+     *
+     * @param startNanos System.nanoTime() when the request was admitted
+     * @param failed     whether the request failed on the server side
+     */
+    public void release(long startNanos, boolean failed) {
+        int inFlightBefore = inFlight.getAndDecrement();
+        long now = System.nanoTime();
+        boolean overloaded = failed || now - startNanos > latencyThresholdNanos;
+        synchronized (this) {
+            if (overloaded) {
+                if (startNanos - lastBackoffNanos > 0) {
+                    limit = Math.max(minLimit, limit * backoffRatio);
+                    lastBackoffNanos = now;
+                }
+            } else if (inFlightBefore * 2 >= limit) {
+                // Only grow while the limit is in use, or a quiet period would inflate it past what the server can take
+                limit = Math.min(maxLimit, limit + 1 / limit);
+            }
+            currentLimit = (int) limit;
+        }
+    }
+
+    public int getLimit() {
+        return currentLimit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
@@ -0,0 +1,101 @@
+package com.siemens.internship;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Admission control for the item endpoints, with a separate adaptive limit per endpoint group:
+ * <ul>
+ *     <li>batch: /process, /process/jobs, /bulk, /export and /import, which start processing runs or hold a
+ *     thread and a connection for a long time;</li>
+ *     <li>interactive: everything else (single items, listing, search, stats).</li>
+ * </ul>
+ * A long processing run or a burst of bulk requests therefore exhausts only the batch limit, and
+ * cheap reads keep being admitted. The streaming endpoints (/stream, /changes) are long-lived by
+ * design and are not limited here. A processing job keeps running after the request that submitted it
+ * has been admitted and answered; {@link ProcessingJobService} caps those separately. Each group's limit and rejections are exported as
+ * items.admission.limit, items.admission.in-flight and items.admission.rejected, tagged by group.
+ */
+@Configuration
+public class AdmissionControlConfig implements WebMvcConfigurer {
+
+    static final String[] BATCH_PATHS = {"/api/items/process", "/api/items/process/jobs", "/api/items/process/jobs/**",
+            "/api/items/bulk", "/api/items/export", "/api/items/import"};
+
+    static final String[] STREAMING_PATHS = {"/api/items/stream", "/api/items/changes"};
+
+    @Autowired
+    private Environment environment;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${items.admission.enabled:true}")
+    private boolean enabled;
+
+    @Bean
+    public AdaptiveConcurrencyLimit interactiveConcurrencyLimit() {
+        return limit("interactive", 50, 10, 500, 250);
+    }
+
+    @Bean
+    public AdaptiveConcurrencyLimit batchConcurrencyLimit() {
+        return limit("batch", 2, 1, 8, 60_000);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        if (!enabled) {
+            return;
+        }
+        // Bean methods are proxied, so these calls return the singletons
+        registry.addInterceptor(interceptor("batch", batchConcurrencyLimit(), 5))
+                .addPathPatterns(BATCH_PATHS);
+        registry.addInterceptor(interceptor("interactive", interactiveConcurrencyLimit(), 1))
+                .addPathPatterns("/api/items", "/api/items/**")
+                .excludePathPatterns(BATCH_PATHS)
+                .excludePathPatterns(STREAMING_PATHS);
+    }
+
+    /**
+     * Reads items.admission.{group}.initial-limit, min-limit, max-limit and latency-threshold-ms,
+     * falling back to the given defaults, and registers the group's gauges. Retry-After is read the
+     * same way, from items.admission.{group}.retry-after-seconds.
+     */
+    private AdaptiveConcurrencyLimit limit(String group, int initialLimit, int minLimit, int maxLimit, long latencyThresholdMs) {
+        String prefix = "items.admission." + group + ".";
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(
+                environment.getProperty(prefix + "initial-limit", Integer.class, initialLimit),
+                environment.getProperty(prefix + "min-limit", Integer.class, minLimit),
+                environment.getProperty(prefix + "max-limit", Integer.class, maxLimit),
+                environment.getProperty(prefix + "latency-threshold-ms", Long.class, latencyThresholdMs),
+                environment.getProperty("items.admission.backoff-ratio", Double.class, 0.9));
+        Gauge.builder("items.admission.limit", limit, AdaptiveConcurrencyLimit::getLimit)
+                .description("Current concurrency limit of an endpoint group")
+                .tag("group", group)
+                .register(meterRegistry);
+        Gauge.builder("items.admission.in-flight", limit, AdaptiveConcurrencyLimit::getInFlight)
+                .description("Admitted requests of an endpoint group still running")
+                .tag("group", group)
+                .register(meterRegistry);
+        return limit;
+    }
+
+    private AdmissionControlInterceptor interceptor(String group, AdaptiveConcurrencyLimit limit, long retryAfterSeconds) {
+        Counter rejected = Counter.builder("items.admission.rejected")
+                .description("Requests rejected with 503 because their endpoint group was at its limit")
+                .tag("group", group)
+                .register(meterRegistry);
+        return new AdmissionControlInterceptor(limit,
+                environment.getProperty("items.admission." + group + ".retry-after-seconds", Long.class, retryAfterSeconds),
+                rejected);
+    }
+}
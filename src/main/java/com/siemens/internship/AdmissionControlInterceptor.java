@@ -0,0 +1,49 @@
+package com.siemens.internship;
+
+import io.micrometer.core.instrument.Counter;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Admits requests of one endpoint group while its {@link AdaptiveConcurrencyLimit} allows and rejects the
+ * rest straight away with 503 and Retry-After, before they take a database connection or queue behind
+ * the requests already running.
+ */
+public class AdmissionControlInterceptor implements HandlerInterceptor {
+
+    private static final String START_ATTRIBUTE = AdmissionControlInterceptor.class.getName() + ".start";
+
+    private final AdaptiveConcurrencyLimit limit;
+    private final long retryAfterSeconds;
+    private final Counter rejected;
+
+    public AdmissionControlInterceptor(AdaptiveConcurrencyLimit limit, long retryAfterSeconds, Counter rejected) {
+        this.limit = limit;
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.rejected = rejected;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!limit.tryAcquire()) {
+            rejected.increment();
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+            return false;
+        }
+        request.setAttribute(START_ATTRIBUTE, System.nanoTime());
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        Object startNanos = request.getAttribute(START_ATTRIBUTE);
+        if (startNanos != null) {
+            request.removeAttribute(START_ATTRIBUTE);
+            limit.release((Long) startNanos, ex != null || response.getStatus() >= 500);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.siemens.internship;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * Outcome of one element of a bulk request, reported at the element's position in the request.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkItemResult {
+
+    private int index;
+
+    private Long id;
+
+    // HTTP status the element would have received as a single request (201, 200, 204, 400, 404)
+    private int status;
+
+    private List<String> errors;
+
+    static BulkItemResult success(int index, Long id, int status) {
+        return new BulkItemResult(index, id, status, List.of());
+    }
+
+    static BulkItemResult failure(int index, Long id, int status, List<String> errors) {
+        return new BulkItemResult(index, id, status, errors);
+    }
+}
@@ -0,0 +1,53 @@
+package com.siemens.internship;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Splits the ID space [minId, maxId] of one processing run into contiguous ranges and hands them
+ * out to worker threads on demand. Only the next range start is shared, so the cost is the same
+ * for ten rows or ten million. Workers that finish early claim more ranges, so dense or slow
+ * ranges do not leave the other workers idle.
+ */
+public class IdRangeCursor {
+
+    // Ranges per worker when the ID space is small, so work still spreads over all workers
+    static final int RANGES_PER_WORKER = 4;
+
+    private final long maxId;
+    private final long rangeSize;
+    private final AtomicLong nextFrom;
+
+    public IdRangeCursor(long minId, long maxId, long rangeSize) {
+        if (rangeSize <= 0) {
+            throw new IllegalArgumentException("rangeSize must be positive");
+        }
+        this.maxId = maxId;
+        this.rangeSize = rangeSize;
+        this.nextFrom = new AtomicLong(minId);
+    }
+
+    /**
+     * Sizes ranges so each worker gets several of them, but none spans more than {@code maxRangeSize} IDs.
+     */
+    public static IdRangeCursor split(long minId, long maxId, int workers, int maxRangeSize) {
+        long span = maxId - minId + 1;
+        long perRange = Math.max(1, span / ((long) workers * RANGES_PER_WORKER));
+        return new IdRangeCursor(minId, maxId, Math.min(perRange, maxRangeSize));
+    }
+
+    /**
+     * @return the next unclaimed range as {from, to}, both inclusive, or null once the space is exhausted
+     */
+    public long[] claim() {
+        while (true) {
+            long from = nextFrom.get();
+            if (from > maxId) {
+                return null;
+            }
+            long to = from > maxId - rangeSize ? maxId : from + rangeSize - 1;
+            if (nextFrom.compareAndSet(from, to + 1)) {
+                return new long[]{from, to};
+            }
+        }
+    }
+}
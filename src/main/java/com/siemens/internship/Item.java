@@ -4,6 +4,10 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import lombok.AllArgsConstructor;
@@ -12,13 +16,19 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_item_status", columnList = "status, id"), // incremental runs and search seek on status, in id order
+        @Index(name = "idx_item_email", columnList = "email"),
+        @Index(name = "idx_item_name", columnList = "name")
+})
 @Getter
 @Setter
 @AllArgsConstructor
 @NoArgsConstructor
 public class Item {
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "item_seq")
+    @SequenceGenerator(name = "item_seq", sequenceName = "item_seq", allocationSize = 50) // pooled: one sequence call per 50 IDs, keeps insert batches intact
     private Long id;
     
     @NotBlank(message = "Name is required") // Validation added
@@ -32,6 +42,14 @@ public class Item {
     @Email(message = "Invalid email format") // Validation added
     @NotBlank(message = "Email is required")
     private String email;
+
+    // Optimistic lock, bumped by every write and exposed to HTTP clients as the ETag
+    @Version
+    private Long version;
+
+    public Item(Long id, String name, String description, String status, String email) {
+        this(id, name, description, status, email, null);
+    }
     
     /**
      * Represents a persistable item with name, status, and contact email.
@@ -0,0 +1,31 @@
+package com.siemens.internship;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * One entry of the change feed (GET /api/items/changes). The sequence is also the SSE event id,
+ * so a reconnecting client resumes from it through Last-Event-ID.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ItemChangeEvent {
+
+    private long sequence;
+
+    private ItemChangeType type;
+
+    // null for RESET
+    private Long itemId;
+
+    // Status after the change; null for DELETED and RESET
+    private String status;
+
+    private Instant timestamp;
+}
@@ -0,0 +1,171 @@
+package com.siemens.internship;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Sequenced feed of item changes, served as Server-Sent Events.
+ * Writers call {@link #publish}, which only stores the event in a fixed-size replay ring and offers it
+ * to each subscriber's bounded queue; it never performs I/O, so a slow client cannot block a write.
+ * Events are sent from a small sender pool. A subscriber whose queue overflows is disconnected;
+ * its client reconnects with Last-Event-ID and catches up from the ring.
+ */
+@Component
+public class ItemChangeFeed {
+
+    private final Object lock = new Object();
+    private final ItemChangeEvent[] ring;
+    private final int subscriberBuffer;
+    private final long emitterTimeoutMs;
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final ThreadPoolTaskExecutor sender;
+    private long lastSequence; // guarded by lock
+
+    /**
+     * @param replaySize       events kept for resuming clients
+     * @param subscriberBuffer events a subscriber may lag behind before it is disconnected
+     * @param senderThreads    threads writing events to subscribers
+     * @param emitterTimeoutMs how long one SSE connection stays open; clients reconnect after it
+     */
+    public ItemChangeFeed(@Value("${items.changes.replay-size:10000}") int replaySize,
+                          @Value("${items.changes.subscriber-buffer:1000}") int subscriberBuffer,
+                          @Value("${items.changes.sender-threads:2}") int senderThreads,
+                          @Value("${items.changes.emitter-timeout-ms:1800000}") long emitterTimeoutMs) {
+        this.ring = new ItemChangeEvent[replaySize];
+        this.subscriberBuffer = subscriberBuffer;
+        this.emitterTimeoutMs = emitterTimeoutMs;
+        sender = new ThreadPoolTaskExecutor();
+        sender.setThreadNamePrefix("item-changes-");
+        sender.setCorePoolSize(senderThreads);
+        sender.setMaxPoolSize(senderThreads);
+        sender.initialize();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.emitter.complete();
+        }
+        sender.shutdown();
+    }
+
+    public void publish(ItemChangeType type, Long itemId, String status) {
+        synchronized (lock) {
+            ItemChangeEvent event = new ItemChangeEvent(++lastSequence, type, itemId, status, Instant.now());
+            ring[(int) (event.getSequence() % ring.length)] = event;
+            for (Subscriber subscriber : subscribers) {
+                subscriber.enqueue(event);
+            }
+        }
+    }
+
+    public long getLastSequence() {
+        synchronized (lock) {
+            return lastSequence;
+        }
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    /**
+     * Opens a subscription. Events after {@code since} still in the replay ring are sent first;
+     * if some have already been overwritten (or {@code since} is unknown) a single RESET event,
+     * carrying the current sequence, is sent instead.
+     *
+     * @param since last sequence the client has seen, or null to receive new events only
+     */
+    public SseEmitter subscribe(Long since) {
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        Subscriber subscriber;
+        synchronized (lock) {
+            long oldestRetained = Math.max(1, lastSequence - ring.length + 1);
+            // A sequence from the future comes from before a restart, when numbering began again
+            boolean reset = since != null && (since > lastSequence || since + 1 < oldestRetained);
+            long replayFrom = since == null || reset ? lastSequence + 1 : since + 1;
+            subscriber = new Subscriber(emitter, (int) (lastSequence - replayFrom + 1) + 1 + subscriberBuffer);
+            if (reset) {
+                subscriber.enqueue(new ItemChangeEvent(lastSequence, ItemChangeType.RESET, null, null, Instant.now()));
+            }
+            for (long sequence = replayFrom; sequence <= lastSequence; sequence++) {
+                subscriber.enqueue(ring[(int) (sequence % ring.length)]);
+            }
+            subscribers.add(subscriber);
+        }
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        subscriber.schedule();
+        return emitter;
+    }
+
+    private class Subscriber {
+
+        private final SseEmitter emitter;
+        private final BlockingQueue<ItemChangeEvent> queue;
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private volatile boolean overflowed;
+
+        Subscriber(SseEmitter emitter, int capacity) {
+            this.emitter = emitter;
+            this.queue = new LinkedBlockingQueue<>(capacity);
+        }
+
+        // Called under the feed lock, possibly on a writer thread: never blocks
+        void enqueue(ItemChangeEvent event) {
+            if (overflowed) {
+                return;
+            }
+            if (!queue.offer(event)) {
+                overflowed = true;
+            }
+            schedule();
+        }
+
+        void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                sender.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                ItemChangeEvent event;
+                while ((event = queue.poll()) != null) {
+                    emitter.send(SseEmitter.event()
+                            .id(Long.toString(event.getSequence()))
+                            .name(event.getType().name())
+                            .data(event, MediaType.APPLICATION_JSON));
+                }
+                if (overflowed) {
+                    subscribers.remove(this);
+                    emitter.complete(); // the client reconnects with Last-Event-ID and replays from the ring
+                    return;
+                }
+            } catch (Exception e) {
+                // Client gone, or the emitter already failed: end the subscription, and let nothing escape
+                // to the sender pool
+                subscribers.remove(this);
+                emitter.completeWithError(e);
+                return;
+            } finally {
+                scheduled.set(false);
+            }
+            if (!queue.isEmpty()) {
+                schedule();
+            }
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.siemens.internship;
+
+public enum ItemChangeType {
+    CREATED,
+    UPDATED,
+    DELETED,
+    PROCESSED,
+    // Sent instead of a replay when the requested sequence has left the replay buffer: reload, then continue
+    RESET
+}
@@ -1,121 +1,571 @@
 package com.siemens.internship;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Valid;
+import jakarta.validation.Validator;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.AsyncRequestNotUsableException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
 
 @RestController
 @RequestMapping("/api/items")
 public class ItemController {
 
+    static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
     @Autowired
     private ItemService itemService;
 
+    @Autowired
+    private ItemWriteBuffer itemWriteBuffer;
+
+    @Autowired
+    private ItemChangeFeed itemChangeFeed;
+
+    @Autowired
+    private ItemStatusCounters itemStatusCounters;
+
+    @Autowired
+    private ItemTransferService itemTransferService;
+
+    @Autowired
+    private ItemJsonCache itemJsonCache;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private Validator validator;
+
+    @Value("${items.bulk.max-size:10000}")
+    private int maxBulkSize;
+
+    @Value("${items.pagination.default-limit:100}")
+    private int defaultPageLimit;
+
+    @Value("${items.pagination.max-limit:1000}")
+    private int maxPageLimit;
+
     /**
      * GET /api/items
      * Retrieves all items from the database.
+     * Passing {@code limit} and/or {@code cursor} switches to keyset pagination on the ID: the page is
+     * read with WHERE id > :lastId ORDER BY id LIMIT :limit, without any COUNT query. When more items
+     * follow, the cursor for the next page is returned in the X-Next-Cursor header (and as a Link rel="next").
      *
-     * @return 200 OK with a list of items
+     * @param limit  page size, capped at items.pagination.max-limit
+     * @param cursor opaque token from a previous page's X-Next-Cursor header
+     * @return 200 OK with a list of items, 400 BAD REQUEST for a non-positive limit or malformed cursor
      */
     @GetMapping
-    public ResponseEntity<List<Item>> getAllItems() {
-        return new ResponseEntity<>(itemService.findAll(), HttpStatus.OK);
+    public ResponseEntity<List<Item>> getAllItems(@RequestParam(required = false) Integer limit,
+                                                  @RequestParam(required = false) String cursor) {
+        if (limit == null && cursor == null) {
+            return new ResponseEntity<>(itemService.findAll(), HttpStatus.OK);
+        }
+        int pageSize = Math.min(limit != null ? limit : defaultPageLimit, maxPageLimit);
+        if (pageSize <= 0) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        long afterId;
+        try {
+            afterId = cursor != null ? decodeCursor(cursor) : Long.MIN_VALUE;
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+
+        // One extra row tells whether another page exists
+        return keysetPage(itemService.findPage(afterId, pageSize + 1), pageSize, Item::getId);
+    }
+
+    /**
+     * GET /api/items/search
+     * Filters items on the server using the indexes declared on Item; all given filters must match.
+     * Returns id, name, status and email only, read as projections rather than full entities.
+     * Paged like GET /api/items: keyset on the ID, next page in X-Next-Cursor / Link rel="next".
+     *
+     * @param status      exact status
+     * @param email       exact email
+     * @param emailPrefix email prefix
+     * @param namePrefix  name prefix
+     * @param limit       page size (defaults to items.pagination.default-limit, capped at items.pagination.max-limit)
+     * @param cursor      opaque token from a previous page's X-Next-Cursor header
+     * @return 200 OK with the matching items, 400 BAD REQUEST for a non-positive limit or malformed cursor
+     */
+    @GetMapping("/search")
+    public ResponseEntity<List<ItemSummary>> searchItems(@RequestParam(required = false) String status,
+                                                         @RequestParam(required = false) String email,
+                                                         @RequestParam(required = false) String emailPrefix,
+                                                         @RequestParam(required = false) String namePrefix,
+                                                         @RequestParam(required = false) Integer limit,
+                                                         @RequestParam(required = false) String cursor) {
+        int pageSize = Math.min(limit != null ? limit : defaultPageLimit, maxPageLimit);
+        if (pageSize <= 0) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        long afterId;
+        try {
+            afterId = cursor != null ? decodeCursor(cursor) : Long.MIN_VALUE;
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        ItemSearchCriteria criteria = new ItemSearchCriteria(status, email, emailPrefix, namePrefix);
+        return keysetPage(itemService.search(criteria, afterId, pageSize + 1), pageSize, ItemSummary::getId);
+    }
+
+    /**
+     * GET /api/items/stats
+     * Item counts by status, served from in-memory counters instead of scanning the table.
+     * Counts reflect this instance's writes immediately and other changes after the next reconciliation.
+     *
+     * @return 200 OK with a status to count map; statuses without items are left out
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<Map<String, Long>> getStatusCounts() {
+        return ResponseEntity.ok(itemStatusCounters.snapshot());
+    }
+
+    /**
+     * GET /api/items/stream
+     * Streams all items as newline-delimited JSON directly from a database cursor.
+     * Memory use is constant and the first bytes go out before the table has been read.
+     *
+     * @return 200 OK with one JSON item per line
+     */
+    @GetMapping(value = "/stream", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> streamItems() {
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                generator.setRootValueSeparator(null);
+                itemService.forEachItem(item -> {
+                    try {
+                        objectMapper.writeValue(generator, item);
+                        generator.writeRaw('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok().contentType(APPLICATION_NDJSON).body(body);
+    }
+
+    /**
+     * GET /api/items/changes
+     * Server-Sent Events feed of item changes (CREATED, UPDATED, DELETED, PROCESSED), replacing polling of
+     * GET /api/items. Each event id is its sequence number; a client resumes after a given sequence with
+     * the Last-Event-ID header (sent automatically by EventSource on reconnect) or the {@code since}
+     * parameter. If that sequence is no longer in the replay buffer, a RESET event tells it to reload.
+     *
+     * @param lastEventId last sequence seen, from an EventSource reconnect
+     * @param since       last sequence seen, for clients that cannot set headers
+     * @return 200 OK with a text/event-stream, 400 BAD REQUEST for a non-numeric sequence
+     */
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamChanges(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+                                                    @RequestParam(required = false) Long since) {
+        Long resumeAfter = since;
+        if (lastEventId != null) {
+            try {
+                resumeAfter = Long.parseLong(lastEventId.trim());
+            } catch (NumberFormatException e) {
+                return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+            }
+        }
+        return new ResponseEntity<>(itemChangeFeed.subscribe(resumeAfter), HttpStatus.OK);
     }
 
     /**
     * POST /api/items
     * Creates a new item if the request body is valid.
+    * With items.write-behind.enabled the insert is group-committed with concurrent creates (see ItemWriteBuffer).
     *
     * @param item The item to create (validated)
     * @param result BindingResult to check for validation errors
-    * @return 201 CREATED on success, 400 BAD REQUEST if validation fails
+    * @return 201 CREATED on success, 400 BAD REQUEST if validation fails,
+    *         503 SERVICE UNAVAILABLE if the write-behind queue stays full
     */
     @PostMapping
     public ResponseEntity<Item> createItem(@Valid @RequestBody Item item, BindingResult result) {
         if (result.hasErrors()) {
         	return new ResponseEntity<>(HttpStatus.BAD_REQUEST);//modified request status to BAD_REQUEST
         }
-        return new ResponseEntity<>(itemService.save(item), HttpStatus.CREATED);//modified status to CREATED
+        Item saved;
+        if (itemWriteBuffer.isEnabled()) {
+            // Group commit: wait until the batch holding this item has committed
+            item.setId(null); // ids are always generated
+            item.setVersion(null);
+            try {
+                saved = itemWriteBuffer.submit(item).get();
+            } catch (RejectedExecutionException e) {
+                return new ResponseEntity<>(HttpStatus.SERVICE_UNAVAILABLE);
+            } catch (InterruptedException | ExecutionException e) {
+                return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+            }
+        } else {
+            saved = itemService.save(item);
+        }
+        return ResponseEntity.status(HttpStatus.CREATED).eTag(eTag(saved)).body(saved);//modified status to CREATED
     }
 
     /**
      * GET /api/items/{id}
-     * Retrieves a specific item by ID.
+     * Retrieves a specific item by ID. The ETag is the item's version; a request whose If-None-Match
+     * still matches it gets 304 NOT MODIFIED without a body (checked by Spring against the ETag below).
+     * The body comes pre-encoded from the item JSON cache, so hot items are not serialized per request.
      *
      * @param id The ID of the item
-     * @return 200 OK if found, 404 NOT FOUND if not
+     * @return 200 OK if found, 304 NOT MODIFIED if unchanged, 404 NOT FOUND if not
      */
     @GetMapping("/{id}")
-    public ResponseEntity<Item> getItemById(@PathVariable Long id) {
+    public ResponseEntity<byte[]> getItemById(@PathVariable Long id) {
         return itemService.findById(id)
-                .map(item -> new ResponseEntity<>(item, HttpStatus.OK))
+                .map(item -> ResponseEntity.ok().eTag(eTag(item)).contentType(MediaType.APPLICATION_JSON)
+                        .body(itemJsonCache.toJson(item)))
                 .orElse(new ResponseEntity<>(HttpStatus.NOT_FOUND));//modified status to NOT_FOUND
     }
     
     /**
      * PUT /api/items/{id}
-     * Updates an existing item by ID if it exists.
+     * Updates an existing item by ID if it exists, in a single UPDATE statement.
+     * With If-Match the update only applies to the version the client last saw, so concurrent
+     * writers cannot silently overwrite each other.
      *
-     * @param id   The ID of the item to update
-     * @param item The updated item content
-     * @return 200 OK if updated, 404 NOT FOUND if item doesn't exist
+     * @param id      The ID of the item to update
+     * @param item    The updated item content
+     * @param ifMatch optional ETag from a previous GET, or *
+     * @return 200 OK with the new ETag if updated, 404 NOT FOUND if item doesn't exist,
+     *         412 PRECONDITION FAILED if it was modified since
      */
     @PutMapping("/{id}")
-    public ResponseEntity<Item> updateItem(@PathVariable Long id, @Valid @RequestBody Item item, BindingResult result) {
+    public ResponseEntity<Item> updateItem(@PathVariable Long id, @Valid @RequestBody Item item, BindingResult result,
+                                           @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         if (result.hasErrors()) {
             return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
         }
-        Optional<Item> existingItem = itemService.findById(id);
-        if (existingItem.isPresent()) {
-            item.setId(id);
-            return new ResponseEntity<>(itemService.save(item), HttpStatus.OK);
-        } else {
-            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        Long expectedVersion;
+        try {
+            expectedVersion = parseIfMatch(ifMatch);
+        } catch (NumberFormatException e) {
+            return new ResponseEntity<>(HttpStatus.PRECONDITION_FAILED); // not an ETag we issued, cannot match
+        }
+        Optional<Item> updated = itemService.update(id, item, expectedVersion);
+        if (updated.isPresent()) {
+            return ResponseEntity.ok().eTag(eTag(updated.get())).body(updated.get());
         }
+        return new ResponseEntity<>(writeMissStatus(id, expectedVersion));
     }
 
     /**
      * DELETE /api/items/{id}
-     * Deletes an item by ID if it exists.
+     * Deletes an item by ID if it exists, in a single DELETE statement; conditional on If-Match like PUT.
      *
-     * @param id The ID of the item to delete
-     * @return 204 NO CONTENT if deleted, 404 NOT FOUND if not found
+     * @param id      The ID of the item to delete
+     * @param ifMatch optional ETag from a previous GET, or *
+     * @return 204 NO CONTENT if deleted, 404 NOT FOUND if not found, 412 PRECONDITION FAILED if it was modified since
      */
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deleteItem(@PathVariable Long id) {
-    	Optional<Item> existing = itemService.findById(id);
-        if (existing.isPresent()) {
-            itemService.deleteById(id);
-
+    public ResponseEntity<Void> deleteItem(@PathVariable Long id,
+                                           @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Long expectedVersion;
+        try {
+            expectedVersion = parseIfMatch(ifMatch);
+        } catch (NumberFormatException e) {
+            return new ResponseEntity<>(HttpStatus.PRECONDITION_FAILED);
+        }
+        if (itemService.delete(id, expectedVersion)) {
             return new ResponseEntity<>(HttpStatus.NO_CONTENT);
-        } else {
+        }
+        return new ResponseEntity<>(writeMissStatus(id, expectedVersion));
+    }
+
+    /**
+     * POST /api/items/bulk
+     * Creates many items in one request and one transaction, inserted as JDBC batches.
+     * Each element is validated on its own; invalid elements are reported and skipped.
+     *
+     * @param items the items to create
+     * @return 201 CREATED if every element was created, 207 MULTI_STATUS if some failed,
+     *         413 PAYLOAD_TOO_LARGE above items.bulk.max-size; the body has one result per element
+     */
+    @PostMapping("/bulk")
+    public ResponseEntity<List<BulkItemResult>> createItems(@RequestBody List<Item> items) {
+        if (items.size() > maxBulkSize) {
+            return new ResponseEntity<>(HttpStatus.PAYLOAD_TOO_LARGE);
+        }
+        BulkItemResult[] results = new BulkItemResult[items.size()];
+        List<Item> valid = new ArrayList<>();
+        List<Integer> validIndexes = new ArrayList<>();
+        for (int i = 0; i < items.size(); i++) {
+            Item item = items.get(i);
+            List<String> errors = validate(item);
+            if (errors.isEmpty()) {
+                item.setId(null); // ids are always generated
+                item.setVersion(null);
+                valid.add(item);
+                validIndexes.add(i);
+            } else {
+                results[i] = BulkItemResult.failure(i, null, HttpStatus.BAD_REQUEST.value(), errors);
+            }
+        }
+        List<Item> saved = valid.isEmpty() ? List.of() : itemService.createAll(valid);
+        for (int i = 0; i < saved.size(); i++) {
+            results[validIndexes.get(i)] = BulkItemResult.success(validIndexes.get(i), saved.get(i).getId(), HttpStatus.CREATED.value());
+        }
+        return bulkResponse(results, HttpStatus.CREATED);
+    }
+
+    /**
+     * POST /api/items/export?file=...
+     * Writes all items as newline-delimited JSON to a file in items.transfer.directory, replacing an existing one.
+     *
+     * @param file plain file name, no directories
+     * @return 200 OK with the item count and file size, 400 BAD_REQUEST for an invalid file name
+     */
+    @PostMapping("/export")
+    public ResponseEntity<ItemTransferResult> exportItems(@RequestParam String file) {
+        try {
+            return new ResponseEntity<>(itemTransferService.export(file), HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        } catch (IOException e) {
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * POST /api/items/import?file=...
+     * Creates an item for every line of a newline-delimited JSON file in items.transfer.directory,
+     * as written by POST /api/items/export. IDs and versions in the file are ignored; invalid lines are skipped.
+     *
+     * @param file plain file name, no directories
+     * @return 200 OK with the imported and rejected counts, 400 BAD_REQUEST for an invalid file name,
+     *         404 NOT_FOUND if the file does not exist
+     */
+    @PostMapping("/import")
+    public ResponseEntity<ItemTransferResult> importItems(@RequestParam String file) {
+        try {
+            return new ResponseEntity<>(itemTransferService.importItems(file), HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        } catch (NoSuchFileException e) {
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        } catch (IOException e) {
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
 
+    /**
+     * PUT /api/items/bulk
+     * Updates many items, identified by the id in each element, in one transaction.
+     *
+     * @param items the new content of each item, including its id
+     * @return 200 OK if every element was updated, 207 MULTI_STATUS if some failed (400 invalid, 404 unknown id),
+     *         413 PAYLOAD_TOO_LARGE above items.bulk.max-size
+     */
+    @PutMapping("/bulk")
+    public ResponseEntity<List<BulkItemResult>> updateItems(@RequestBody List<Item> items) {
+        if (items.size() > maxBulkSize) {
+            return new ResponseEntity<>(HttpStatus.PAYLOAD_TOO_LARGE);
+        }
+        BulkItemResult[] results = new BulkItemResult[items.size()];
+        List<Item> valid = new ArrayList<>();
+        for (int i = 0; i < items.size(); i++) {
+            Item item = items.get(i);
+            List<String> errors = validate(item);
+            if (item.getId() == null) {
+                errors.add("id: Id is required");
+            }
+            if (errors.isEmpty()) {
+                valid.add(item);
+            } else {
+                results[i] = BulkItemResult.failure(i, item.getId(), HttpStatus.BAD_REQUEST.value(), errors);
+            }
+        }
+        Map<Long, Item> updated = valid.isEmpty() ? Map.of() : itemService.updateAll(valid);
+        for (int i = 0; i < items.size(); i++) {
+            if (results[i] == null) {
+                Long id = items.get(i).getId();
+                results[i] = updated.containsKey(id)
+                        ? BulkItemResult.success(i, id, HttpStatus.OK.value())
+                        : BulkItemResult.failure(i, id, HttpStatus.NOT_FOUND.value(), List.of("Item not found"));
+            }
+        }
+        return bulkResponse(results, HttpStatus.OK);
+    }
+
+    /**
+     * DELETE /api/items/bulk
+     * Deletes many items with a single DELETE statement.
+     *
+     * @param ids the IDs to delete
+     * @return 200 OK if every ID was deleted, 207 MULTI_STATUS if some were not found,
+     *         413 PAYLOAD_TOO_LARGE above items.bulk.max-size
+     */
+    @DeleteMapping("/bulk")
+    public ResponseEntity<List<BulkItemResult>> deleteItems(@RequestBody List<Long> ids) {
+        if (ids.size() > maxBulkSize) {
+            return new ResponseEntity<>(HttpStatus.PAYLOAD_TOO_LARGE);
+        }
+        Set<Long> deleted = ids.isEmpty() ? Set.of() : itemService.deleteAllById(ids);
+        BulkItemResult[] results = new BulkItemResult[ids.size()];
+        for (int i = 0; i < ids.size(); i++) {
+            Long id = ids.get(i);
+            results[i] = deleted.contains(id)
+                    ? BulkItemResult.success(i, id, HttpStatus.NO_CONTENT.value())
+                    : BulkItemResult.failure(i, id, HttpStatus.NOT_FOUND.value(), List.of("Item not found"));
+        }
+        return bulkResponse(results, HttpStatus.OK);
+    }
+
     /**
      * GET /api/items/process
      * Triggers asynchronous processing of all items.
      * Waits for all tasks to complete and returns the list of processed items.
      *
-     * @return 200 OK with processed items list, 500 INTERNAL SERVER ERROR if async task fails
+     * @param mode      PER_ITEM (default) processes row by row, CHUNKED reads and writes in keyset chunks,
+     *                  LEASED shares the run with other instances (default set by items.processing.default-mode)
+     * @param chunkSize items per transaction in CHUNKED mode (defaults to items.processing.chunk-size)
+     * @param incremental only process items not yet PROCESSED; already processed ones are neither loaded nor returned
+     * @return 200 OK with processed items list, 400 BAD REQUEST for a non-positive chunk size,
+     *         500 INTERNAL SERVER ERROR if async task fails
      */
     @GetMapping("/process")
-    public ResponseEntity<List<Item>> processItems() {
+    public ResponseEntity<List<Item>> processItems(
+            @RequestParam(defaultValue = "${items.processing.default-mode:PER_ITEM}") ProcessingMode mode,
+            @RequestParam(defaultValue = "${items.processing.chunk-size:500}") int chunkSize,
+            @RequestParam(defaultValue = "false") boolean incremental) {
+        if (chunkSize <= 0) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
         try {
-            List<Item> result = itemService.processItemsAsync().get();
+            List<Item> result = itemService.processAsync(new ProcessingOptions(mode, chunkSize, incremental), true).get().getItems();
             return new ResponseEntity<>(result, HttpStatus.OK);
         } catch (InterruptedException | ExecutionException e) {
             // Return a generic 500 response
             return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
+
+    /**
+     * GET /api/items/process?summary=true
+     * Same run as {@link #processItems}, but only counts and failed IDs are kept and returned,
+     * so processing a very large table does not hold every item on the heap.
+     *
+     * @param mode      PER_ITEM (default), CHUNKED or LEASED
+     * @param chunkSize items per transaction in CHUNKED mode
+     * @param incremental only process items not yet PROCESSED and report the rest as skipped
+     * @return 200 OK with the run summary, 400 BAD REQUEST for a non-positive chunk size,
+     *         500 INTERNAL SERVER ERROR if async task fails
+     */
+    @GetMapping(value = "/process", params = "summary=true")
+    public ResponseEntity<ProcessingSummary> processItemsSummary(
+            @RequestParam(defaultValue = "${items.processing.default-mode:PER_ITEM}") ProcessingMode mode,
+            @RequestParam(defaultValue = "${items.processing.chunk-size:500}") int chunkSize,
+            @RequestParam(defaultValue = "false") boolean incremental) {
+        if (chunkSize <= 0) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        try {
+            ProcessingRun run = itemService.processAsync(new ProcessingOptions(mode, chunkSize, incremental), false).get();
+            return new ResponseEntity<>(run.toSummary(), HttpStatus.OK);
+        } catch (InterruptedException | ExecutionException e) {
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    // A change feed client that went away: the async dispatch carries the failed write and nobody is left to answer.
+    // Any other IOException is a server-side failure and gets the default 500.
+    @ExceptionHandler(AsyncRequestNotUsableException.class)
+    public void handleClientGone(AsyncRequestNotUsableException e) {
+    }
+
+    private List<String> validate(Item item) {
+        List<String> errors = new ArrayList<>();
+        for (ConstraintViolation<Item> violation : validator.validate(item)) {
+            errors.add(violation.getPropertyPath() + ": " + violation.getMessage());
+        }
+        return errors;
+    }
+
+    private static ResponseEntity<List<BulkItemResult>> bulkResponse(BulkItemResult[] results, HttpStatus allSucceeded) {
+        boolean anyFailed = false;
+        for (BulkItemResult result : results) {
+            anyFailed |= !result.getErrors().isEmpty();
+        }
+        return new ResponseEntity<>(List.of(results), anyFailed ? HttpStatus.MULTI_STATUS : allSucceeded);
+    }
+
+    // A conditional write that matched no row: the item is gone, or it exists with another version
+    private HttpStatus writeMissStatus(Long id, Long expectedVersion) {
+        return expectedVersion != null && itemService.exists(id) ? HttpStatus.PRECONDITION_FAILED : HttpStatus.NOT_FOUND;
+    }
+
+    private static String eTag(Item item) {
+        return "\"" + item.getVersion() + "\"";
+    }
+
+    // null for no header or *, otherwise the version inside the entity tag; weak tags never match If-Match
+    private static Long parseIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.length() < 2 || !tag.startsWith("\"") || !tag.endsWith("\"")) {
+            throw new NumberFormatException("Malformed entity tag: " + ifMatch);
+        }
+        return Long.parseLong(tag.substring(1, tag.length() - 1));
+    }
+
+    // rows holds up to pageSize + 1 entries; the extra one only signals that a next page exists
+    private static <T> ResponseEntity<List<T>> keysetPage(List<T> rows, int pageSize, Function<T, Long> idOf) {
+        if (rows.size() <= pageSize) {
+            return new ResponseEntity<>(rows, HttpStatus.OK);
+        }
+        List<T> page = rows.subList(0, pageSize);
+        String nextCursor = encodeCursor(idOf.apply(page.get(pageSize - 1)));
+        String next = ServletUriComponentsBuilder.fromCurrentRequest()
+                .replaceQueryParam("limit", pageSize)
+                .replaceQueryParam("cursor", nextCursor)
+                .toUriString();
+        return ResponseEntity.ok()
+                .header("X-Next-Cursor", nextCursor)
+                .header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"")
+                .body(page);
+    }
+
+    private static String encodeCursor(long lastId) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(Long.toString(lastId).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    // Throws IllegalArgumentException (NumberFormatException included) for tokens we did not issue
+    private static long decodeCursor(String cursor) {
+        return Long.parseLong(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII));
+    }
     
 }
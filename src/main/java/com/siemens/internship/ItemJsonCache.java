@@ -0,0 +1,78 @@
+package com.siemens.internship;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.UncheckedIOException;
+
+/**
+ * Items already serialized to JSON, so a hot GET /api/items/{id} copies cached bytes to the response
+ * instead of running Jackson again. Every entry remembers the version it was encoded from and is only
+ * served for that version, so an entry that missed an eviction is re-encoded rather than served stale.
+ * ItemService still evicts entries on every write, which frees the memory of changed and deleted items.
+ * <p>
+ * The cache is bounded by the encoded size of its entries (items.json-cache.max-bytes), not their count,
+ * and reports hits, misses and evictions as the cache.* meters tagged cache=item-json.
+ */
+@Component
+public class ItemJsonCache {
+
+    // Rough per-entry overhead of the key, the entry object and the cache node, counted into the weight
+    private static final int ENTRY_OVERHEAD_BYTES = 64;
+
+    private record Encoded(long version, byte[] json) {
+    }
+
+    private final ObjectMapper objectMapper;
+    private final Cache<Long, Encoded> cache;
+
+    /**
+     * @param maxBytes upper bound for the encoded JSON held, per-entry overhead included
+     */
+    public ItemJsonCache(ObjectMapper objectMapper,
+                         MeterRegistry registry,
+                         @Value("${items.json-cache.max-bytes:16777216}") long maxBytes) {
+        this.objectMapper = objectMapper;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((Long id, Encoded encoded) -> encoded.json().length + ENTRY_OVERHEAD_BYTES)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(registry, cache, "item-json");
+    }
+
+    /**
+     * @param item item as returned by ItemService.findById
+     * @return the item's JSON, from the cache when it was encoded from the same version
+     */
+    public byte[] toJson(Item item) {
+        if (item.getId() == null || item.getVersion() == null) {
+            return encode(item);
+        }
+        Encoded cached = cache.getIfPresent(item.getId());
+        if (cached != null && cached.version() == item.getVersion()) {
+            return cached.json();
+        }
+        byte[] json = encode(item);
+        cache.put(item.getId(), new Encoded(item.getVersion(), json));
+        return json;
+    }
+
+    public void evict(Long id) {
+        cache.invalidate(id);
+    }
+
+    private byte[] encode(Item item) {
+        try {
+            return objectMapper.writeValueAsBytes(item);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,575 @@
+package com.siemens.internship;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * PER_ITEM processing as three stages connected by bounded queues, so reads, processing and writes overlap:
+ * <ol>
+ *     <li>read: claims contiguous ID ranges (see {@link IdRangeCursor}) and loads each range with one query;</li>
+ *     <li>process: several workers pass single items through the {@link ItemProcessor};</li>
+ *     <li>write: collects up to {@code batchSize} processed items and writes them in one transaction,
+ *     as one JDBC batch of UPDATEs; a batch that does not fill up is written once its first item has
+ *     waited {@code max-batch-delay-ms}.</li>
+ * </ol>
+ * Full queues block the stage before them, so memory stays bounded by the queue capacities.
+ * Readers and processors run on the item processing executor, in slots the run reserves up front so that
+ * concurrent runs cannot starve each other's stages; the writer runs on the calling thread. Should the writer
+ * fail, the run still waits for the other stages to end, so every slot it reserved is given back.
+ * Each stage counts its items and queue backlog in {@link ProcessingMetrics}.
+ * <p>
+ * Ranges complete out of order, so the checkpoint saved with each write batch records the end of the
+ * longest run of completed ranges from the start, plus the highest ID written. A resumed run starts
+ * after the former and, up to the latter, only reads items that are not PROCESSED yet, so items
+ * written just before the interruption are not processed again.
+ */
+@Component
+public class ItemProcessingPipeline {
+
+    private static final Logger log = LoggerFactory.getLogger(ItemProcessingPipeline.class);
+
+    public enum Stage {
+        READ, PROCESS, WRITE
+    }
+
+    // Marks the end of the input on a queue; compared by identity
+    private static final Item END = new Item();
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ItemProcessor itemProcessor;
+
+    @Autowired
+    @Qualifier("itemProcessingExecutor")
+    private AsyncTaskExecutor executor;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private ItemJsonCache itemJsonCache;
+
+    @Autowired
+    private ItemChangeFeed itemChangeFeed;
+
+    @Autowired
+    private ProcessingMetrics processingMetrics;
+
+    @Autowired
+    private ProcessingCheckpointService processingCheckpointService;
+
+    @Autowired
+    private ItemStatusCounters itemStatusCounters;
+
+    // Upper bound on the IDs a reader loads with one query
+    @Value("${items.processing.range-size:1000}")
+    private int rangeSize;
+
+    @Value("${items.processing.pipeline.readers:1}")
+    private int readers;
+
+    // Items waiting in front of the process stage and in front of the write stage, each
+    @Value("${items.processing.pipeline.queue-capacity:1000}")
+    private int queueCapacity;
+
+    // Longest the first item of a write batch waits for the batch to fill up
+    @Value("${items.processing.pipeline.max-batch-delay-ms:200}")
+    private long maxBatchDelayMs;
+
+    // Stage slots on the executor that no run has reserved yet, shared by concurrent runs
+    private Semaphore stageSlots;
+
+    private int stageConcurrency;
+
+    @PostConstruct
+    void initStageSlots() {
+        stageConcurrency = ProcessingExecutorConfig.concurrencyOf(executor);
+        stageSlots = new Semaphore(stageConcurrency, true);
+    }
+
+    /**
+     * Runs the pipeline to completion (or cancellation) on the calling thread's behalf.
+     *
+     * @param run         accumulator to record into
+     * @param incremental only read items whose status is not PROCESSED
+     * @param batchSize   items written per transaction
+     * @param checkpoint  where to resume from and record progress, null to run without one
+     */
+    public void run(ProcessingRun run, boolean incremental, int batchSize, ProcessingCheckpoint checkpoint) {
+        Long minId = itemRepository.findMinId();
+        Long maxId = itemRepository.findMaxId();
+        if (minId == null) {
+            return; // empty table
+        }
+        Long resumeUpTo = null;
+        if (checkpoint != null && checkpoint.getLastId() != null) {
+            minId = Math.max(minId, checkpoint.getLastId() + 1);
+            resumeUpTo = checkpoint.getHighestWrittenId();
+            if (minId > maxId) {
+                return;
+            }
+        }
+        int reserved = reserveSlots();
+        int processors = reserved - readers;
+        int unused = reserved; // slots not yet handed to a stage, which gives its own back when it ends
+        try {
+            IdRangeCursor ranges = IdRangeCursor.split(minId, maxId, readers, rangeSize);
+            BlockingQueue<Item> toProcess = new ArrayBlockingQueue<>(queueCapacity);
+            BlockingQueue<Item> toWrite = new ArrayBlockingQueue<>(queueCapacity);
+            Progress progress = new Progress(minId - 1, checkpoint == null ? null : checkpoint.getHighestWrittenId());
+            Long skipProcessedUpTo = incremental ? null : resumeUpTo;
+            // The last reader to finish sends one END per processor to tell them to stop
+            AtomicInteger readersLeft = new AtomicInteger(readers);
+            // Set when the writer fails, so the other stages wind down instead of feeding it
+            AtomicBoolean stopped = new AtomicBoolean();
+
+            List<Future<?>> futures = new ArrayList<>(reserved);
+            for (int i = 0; i < readers; i++) {
+                futures.add(submitStage(() -> {
+                    try {
+                        read(run, stopped, ranges, incremental, skipProcessedUpTo, progress, toProcess);
+                    } finally {
+                        if (readersLeft.decrementAndGet() == 0) {
+                            for (int p = 0; p < processors; p++) {
+                                put(toProcess, END, Stage.PROCESS);
+                            }
+                        }
+                    }
+                }));
+                unused--;
+            }
+            for (int i = 0; i < processors; i++) {
+                futures.add(submitStage(() -> processLoop(run, stopped, progress, toProcess, toWrite)));
+                unused--;
+            }
+
+            try {
+                writeLoop(run, progress, checkpoint, toWrite, processors, batchSize);
+            } catch (RuntimeException | Error e) {
+                stopStages(stopped, futures, toWrite);
+                throw e;
+            }
+            awaitAll(futures);
+        } finally {
+            stageSlots.release(unused);
+        }
+    }
+
+    /**
+     * Reserves one executor slot per stage of a run: every reader plus as many processors as the executor's
+     * concurrency leaves room for, waiting until they are all free. Stages block on each other's queues, so
+     * a stage queued behind a blocked stage of another run could never start; with every stage holding a
+     * reserved slot, each one gets a thread as soon as it is submitted. Concurrent runs therefore take turns
+     * on the executor instead of sharing it.
+     *
+     * @return the number of slots reserved
+     */
+    private int reserveSlots() {
+        if (stageConcurrency < readers + 1) {
+            throw new IllegalStateException("The processing pipeline needs an executor concurrency of at least "
+                    + (readers + 1) + ", got " + stageConcurrency);
+        }
+        try {
+            stageSlots.acquire(stageConcurrency);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CompletionException(e);
+        }
+        return stageConcurrency;
+    }
+
+    // Each stage gives back the slot reserved for it once it ends
+    private Future<?> submitStage(Runnable stage) {
+        return executor.submit(() -> {
+            try {
+                stage.run();
+            } finally {
+                stageSlots.release();
+            }
+        });
+    }
+
+    /**
+     * @param skipProcessedUpTo IDs up to which PROCESSED items are left out even in a full run, because
+     *                          the interrupted attempt may already have written them; null if there is none
+     */
+    private void read(ProcessingRun run, AtomicBoolean stopped, IdRangeCursor ranges, boolean incremental,
+                      Long skipProcessedUpTo, Progress progress, BlockingQueue<Item> toProcess) {
+        long[] range;
+        while (!run.isCancelled() && !stopped.get() && (range = ranges.claim()) != null) {
+            long from = range[0];
+            long to = range[1];
+            List<Item> items;
+            if (incremental) {
+                items = findPending(from, to);
+            } else if (skipProcessedUpTo != null && from <= skipProcessedUpTo) {
+                items = new ArrayList<>(findPending(from, Math.min(to, skipProcessedUpTo)));
+                if (to > skipProcessedUpTo) {
+                    items.addAll(itemRepository.findByIdBetweenOrderByIdAsc(skipProcessedUpTo + 1, to));
+                }
+            } else {
+                items = itemRepository.findByIdBetweenOrderByIdAsc(from, to);
+            }
+            progress.register(from, to, items.size()); // before any of its items can complete
+            processingMetrics.recordStage(Stage.READ, items.size());
+            for (Item item : items) {
+                put(toProcess, item, Stage.PROCESS);
+            }
+        }
+    }
+
+    private List<Item> findPending(long from, long to) {
+        return itemRepository.findByIdBetweenWithStatusOtherThan(from, to, ItemService.PROCESSED, ItemService.AFTER_PROCESSED);
+    }
+
+    private void processLoop(ProcessingRun run, AtomicBoolean stopped, Progress progress,
+                             BlockingQueue<Item> toProcess, BlockingQueue<Item> toWrite) {
+        try {
+            while (true) {
+                Item item = take(toProcess, Stage.PROCESS);
+                if (item == END) {
+                    return;
+                }
+                if (run.isCancelled() || stopped.get()) {
+                    continue; // drain without working so the readers can finish
+                }
+                long startNanos = System.nanoTime();
+                try {
+                    Item processed = itemProcessor.process(item);
+                    processingMetrics.recordItem(startNanos);
+                    processingMetrics.recordStage(Stage.PROCESS, 1);
+                    put(toWrite, processed, Stage.WRITE);
+                } catch (InterruptedException e) {
+                    throw new CompletionException(e);
+                } catch (Exception e) {
+                    // One bad item must not abort the run; it is reported in the summary instead
+                    log.warn("Processing item {} failed", item.getId(), e);
+                    run.recordFailed(item.getId());
+                    processingMetrics.recordFailure();
+                    progress.done(item.getId());
+                }
+            }
+        } finally {
+            put(toWrite, END, Stage.WRITE);
+        }
+    }
+
+    /**
+     * Winds down the stages of a run whose writer failed: readers stop claiming ranges, processors drain
+     * their queue without working, and the write queue is emptied here until every stage has ended. No stage
+     * is then left blocked on a full queue, holding the executor slot reserved for it.
+     */
+    private void stopStages(AtomicBoolean stopped, List<Future<?>> futures, BlockingQueue<Item> toWrite) {
+        stopped.set(true);
+        boolean interrupted = Thread.interrupted(); // the writer may have failed because it was interrupted
+        for (Future<?> future : futures) {
+            while (!future.isDone()) {
+                try {
+                    discard(toWrite.poll(10, TimeUnit.MILLISECONDS));
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+        Item item;
+        while ((item = toWrite.poll()) != null) {
+            discard(item);
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void discard(Item item) {
+        if (item != null && item != END) {
+            processingMetrics.backlog(Stage.WRITE).decrementAndGet();
+        }
+    }
+
+    private void writeLoop(ProcessingRun run, Progress progress, ProcessingCheckpoint checkpoint,
+                           BlockingQueue<Item> toWrite, int producers, int batchSize) {
+        int finished = 0;
+        List<Item> batch = new ArrayList<>(batchSize);
+        long deadline = 0;
+        while (finished < producers) {
+            Item item;
+            if (batch.isEmpty()) {
+                item = take(toWrite, Stage.WRITE);
+            } else {
+                item = poll(toWrite, Stage.WRITE, deadline - System.nanoTime());
+            }
+            if (item == END) {
+                finished++;
+            } else if (item != null) {
+                if (batch.isEmpty()) {
+                    deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxBatchDelayMs);
+                }
+                batch.add(item);
+            }
+            // Write when the batch is full, its first item has waited long enough, or no more items will come
+            if (!batch.isEmpty() && (batch.size() >= batchSize || item == null || finished == producers)) {
+                write(run, progress, checkpoint, batch);
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Writes one batch. Should the batch transaction fail, its items are retried one per transaction,
+     * so only those that fail on their own are reported as failed.
+     */
+    private void write(ProcessingRun run, Progress progress, ProcessingCheckpoint checkpoint, List<Item> batch) {
+        long startNanos = System.nanoTime();
+        List<Item> conflicts = new ArrayList<>();
+        List<Item> written;
+        try {
+            written = writeBatch(run, progress, checkpoint, batch, conflicts, 0);
+            progress.finished(batch, written);
+        } catch (RuntimeException e) {
+            log.warn("Writing a batch of {} processed items failed, retrying them one by one", batch.size(), e);
+            conflicts.clear();
+            written = new ArrayList<>(batch.size());
+            for (Item item : batch) {
+                List<Item> writtenItem = List.of();
+                try {
+                    writtenItem = writeBatch(run, progress, checkpoint, List.of(item), conflicts, written.size());
+                } catch (RuntimeException itemFailure) {
+                    log.warn("Writing processed item {} failed", item.getId(), itemFailure);
+                    conflicts.add(item);
+                }
+                written.addAll(writtenItem);
+                progress.finished(List.of(item), writtenItem);
+            }
+        }
+        for (Item item : conflicts) {
+            run.recordFailed(item.getId());
+            processingMetrics.recordFailure();
+        }
+        processingMetrics.recordChunk(startNanos, written.size());
+        processingMetrics.recordStage(Stage.WRITE, written.size());
+        run.recordProcessed(written);
+        Cache cache = cacheManager.getCache(ItemService.ITEM_CACHE);
+        for (Item item : written) {
+            cache.evict(item.getId()); // after commit, so a concurrent read cannot reload the old status
+            itemJsonCache.evict(item.getId());
+            itemChangeFeed.publish(ItemChangeType.PROCESSED, item.getId(), item.getStatus());
+        }
+    }
+
+    /**
+     * Copies the processed state onto the managed rows, loaded and locked with one IN query, and commits them
+     * as one batch. A row whose version changed since it was read was updated concurrently: it is reported
+     * as failed rather than overwritten. Rows deleted in the meantime are skipped. The lock keeps the rows
+     * from changing between this check and the flush. The checkpoint is saved in the same transaction, counting
+     * the given items as done; {@link Progress} itself only learns they are once the transaction has committed,
+     * so a checkpoint never covers an item whose write was rolled back.
+     *
+     * @param conflicts      collects the items that changed concurrently
+     * @param earlierWritten items of the same batch already written by earlier calls, for the checkpoint counts
+     * @return the written items
+     */
+    private List<Item> writeBatch(ProcessingRun run, Progress progress, ProcessingCheckpoint checkpoint, List<Item> batch,
+                                  List<Item> conflicts, int earlierWritten) {
+        return transactionTemplate.execute(status -> {
+            Map<Long, Item> managed = itemRepository.findAllByIdInForUpdate(batch.stream().map(Item::getId).toList()).stream()
+                    .collect(Collectors.toMap(Item::getId, Function.identity()));
+            List<Item> updated = new ArrayList<>(batch.size());
+            List<Item> changed = new ArrayList<>();
+            for (Item item : batch) {
+                Item current = managed.get(item.getId());
+                if (current == null) {
+                    continue;
+                }
+                if (!Objects.equals(current.getVersion(), item.getVersion())) {
+                    changed.add(item);
+                    continue;
+                }
+                itemStatusCounters.move(current.getStatus(), item.getStatus());
+                current.setName(item.getName());
+                current.setDescription(item.getDescription());
+                current.setStatus(item.getStatus());
+                current.setEmail(item.getEmail());
+                updated.add(current);
+            }
+            processingCheckpointService.save(checkpoint, progress.doneUpTo(batch), progress.highestWrittenWith(updated),
+                    run.getProcessedCount() + earlierWritten + updated.size(),
+                    run.getFailedCount() + conflicts.size() + changed.size());
+            conflicts.addAll(changed);
+            return updated;
+        });
+    }
+
+    /**
+     * Which ID ranges of a run are completely done. Readers register each range with the number of items
+     * read from it, processors and the writer count items off, and the writer alone advances
+     * {@code lastId} over the completed ranges at the front. The writer counts its items off only after
+     * their transaction has committed, or after they have failed for good.
+     */
+    private static class Progress {
+
+        private final ConcurrentSkipListMap<Long, RangeProgress> ranges = new ConcurrentSkipListMap<>();
+        private long lastId;
+        private Long highestWrittenId;
+
+        Progress(long lastId, Long highestWrittenId) {
+            this.lastId = lastId;
+            this.highestWrittenId = highestWrittenId;
+        }
+
+        void register(long from, long to, int items) {
+            ranges.put(from, new RangeProgress(to, items));
+        }
+
+        void done(long id) {
+            ranges.floorEntry(id).getValue().remaining.decrementAndGet();
+        }
+
+        /**
+         * Counts off the items of a write transaction once it has committed, or once they failed for good.
+         *
+         * @param written those of the items that were written
+         */
+        void finished(List<Item> items, List<Item> written) {
+            for (Item item : items) {
+                done(item.getId());
+            }
+            highestWrittenId = highestWrittenWith(written);
+            Map.Entry<Long, RangeProgress> head;
+            while ((head = ranges.firstEntry()) != null && head.getKey() == lastId + 1
+                    && head.getValue().remaining.get() == 0) {
+                lastId = head.getValue().to;
+                ranges.remove(head.getKey());
+            }
+        }
+
+        /**
+         * @param committing items of the transaction about to commit, counted as done without recording them
+         * @return the ID up to which every range is done once they are
+         */
+        long doneUpTo(List<Item> committing) {
+            Map<Long, Integer> pending = new HashMap<>();
+            for (Item item : committing) {
+                pending.merge(ranges.floorKey(item.getId()), 1, Integer::sum);
+            }
+            long upTo = lastId;
+            for (Map.Entry<Long, RangeProgress> range : ranges.entrySet()) {
+                if (range.getKey() != upTo + 1
+                        || range.getValue().remaining.get() > pending.getOrDefault(range.getKey(), 0)) {
+                    break;
+                }
+                upTo = range.getValue().to;
+            }
+            return upTo;
+        }
+
+        /**
+         * @return the highest ID written so far, including the given items
+         */
+        long highestWrittenWith(List<Item> written) {
+            long highest = highestWrittenId == null ? lastId : highestWrittenId;
+            for (Item item : written) {
+                highest = Math.max(highest, item.getId());
+            }
+            return highest;
+        }
+    }
+
+    private static class RangeProgress {
+
+        private final long to;
+        private final AtomicInteger remaining;
+
+        RangeProgress(long to, int items) {
+            this.to = to;
+            this.remaining = new AtomicInteger(items);
+        }
+    }
+
+    private void put(BlockingQueue<Item> queue, Item item, Stage stage) {
+        try {
+            queue.put(item);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CompletionException(e);
+        }
+        if (item != END) {
+            processingMetrics.backlog(stage).incrementAndGet();
+        }
+    }
+
+    private Item take(BlockingQueue<Item> queue, Stage stage) {
+        Item item;
+        try {
+            item = queue.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CompletionException(e);
+        }
+        if (item != END) {
+            processingMetrics.backlog(stage).decrementAndGet();
+        }
+        return item;
+    }
+
+    /**
+     * @return the next item, or null if none arrived within the timeout
+     */
+    private Item poll(BlockingQueue<Item> queue, Stage stage, long timeoutNanos) {
+        Item item;
+        try {
+            item = queue.poll(Math.max(0, timeoutNanos), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CompletionException(e);
+        }
+        if (item != null && item != END) {
+            processingMetrics.backlog(stage).decrementAndGet();
+        }
+        return item;
+    }
+
+    private static void awaitAll(List<Future<?>> futures) {
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CompletionException(e);
+            } catch (ExecutionException e) {
+                throw new CompletionException(e.getCause());
+            }
+        }
+    }
+}
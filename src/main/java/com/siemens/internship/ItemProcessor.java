@@ -0,0 +1,12 @@
+package com.siemens.internship;
+
+/**
+ * The transformation step of the processing pipeline (see {@link ItemProcessingPipeline}).
+ * Implementations receive a detached item and return the state to be written; they run on
+ * several threads at once and must not touch the database. Throwing marks only that item as failed.
+ * Declare a @Primary bean of this type to replace {@link MarkProcessedItemProcessor}.
+ */
+public interface ItemProcessor {
+
+    Item process(Item item) throws Exception;
+}
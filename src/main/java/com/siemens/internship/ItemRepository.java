@@ -1,18 +1,181 @@
 package com.siemens.internship;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository // Added the @Repository annotation
-public interface ItemRepository extends JpaRepository<Item, Long> {
+public interface ItemRepository extends JpaRepository<Item, Long>, ItemSearchRepository {
 	
-	/**
-     * Retrieves all item IDs from the database.
-     * @return List of item IDs
+    /**
+     * Keyset read used by chunked processing and paginated listing: the next {@code limit} items after the given ID,
+     * in ID order. Seeking on the primary key keeps every chunk an index range scan,
+     * no matter how far into the table the run is.
+     * @param id    exclusive lower bound (last ID of the previous chunk)
+     * @param limit maximum number of items to return
+     * @return List of items ordered by ID
      */
-    @Query("SELECT id FROM Item")
-    List<Long> findAllIds();
+    List<Item> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    /**
+     * Like {@link #findByIdGreaterThanOrderByIdAsc}, with the rows locked until the end of the transaction, so a
+     * chunk being processed cannot be changed underneath it: concurrent writes to these rows wait for the commit.
+     * @param id    exclusive lower bound (last ID of the previous chunk)
+     * @param limit maximum number of items to return
+     * @return List of items ordered by ID
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM Item i WHERE i.id > :id ORDER BY i.id")
+    List<Item> findChunkAfterIdForUpdate(Long id, Limit limit);
+
+    /**
+     * Streams every item in ID order from a database cursor instead of materializing a list.
+     * Must be consumed inside a transaction and closed afterwards.
+     * @return Stream of items ordered by ID
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT i FROM Item i ORDER BY i.id")
+    Stream<Item> streamAllOrderById();
+
+    /**
+     * Current status of an item, locked until the end of the transaction, so the status change of a
+     * write that does not load the item can be counted exactly (see {@link ItemStatusCounters}).
+     * @param id item ID
+     * @return the status, or null if the ID does not exist
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i.status FROM Item i WHERE i.id = :id")
+    String findStatusByIdForUpdate(Long id);
+
+    /**
+     * Like {@link #findStatusByIdForUpdate} for several IDs.
+     * @param ids candidate IDs
+     * @return ID and status of those that exist
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT new com.siemens.internship.ItemSummary(i.id, i.name, i.status, i.email) FROM Item i WHERE i.id IN :ids")
+    List<ItemSummary> findSummariesByIdInForUpdate(Collection<Long> ids);
+
+    /**
+     * Items by ID, locked until the end of the transaction (write stage of the processing pipeline).
+     * @param ids candidate IDs
+     * @return the items that exist, in ID order
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM Item i WHERE i.id IN :ids ORDER BY i.id")
+    List<Item> findAllByIdInForUpdate(Collection<Long> ids);
+
+    /**
+     * Item counts per status in one grouped query; seeds and reconciles {@link ItemStatusCounters}.
+     * @return one entry per status present
+     */
+    @Query("SELECT new com.siemens.internship.ItemStatusCount(i.status, COUNT(i)) FROM Item i GROUP BY i.status")
+    List<ItemStatusCount> countGroupedByStatus();
+
+    @Query("SELECT MIN(i.id) FROM Item i")
+    Long findMinId();
+
+    @Query("SELECT MAX(i.id) FROM Item i")
+    Long findMaxId();
+
+    /**
+     * Loads the items of one contiguous ID range, as a primary key range scan (read stage of the processing pipeline).
+     * @param from inclusive lower bound
+     * @param to   inclusive upper bound
+     * @return List of items in ID order
+     */
+    List<Item> findByIdBetweenOrderByIdAsc(long from, long to);
+
+    /**
+     * Like {@link #findByIdBetweenOrderByIdAsc}, restricted to items whose status is not {@code status}.
+     * @param from   inclusive lower bound
+     * @param to     inclusive upper bound
+     * @param status status to exclude
+     * @param after  smallest string sorting after {@code status}
+     * @return List of items in ID order
+     */
+    @Query("SELECT i FROM Item i WHERE i.id BETWEEN :from AND :to AND (i.status < :status OR i.status >= :after) ORDER BY i.id")
+    List<Item> findByIdBetweenWithStatusOtherThan(long from, long to, String status, String after);
+
+    /**
+     * Like {@link #findByIdBetweenOrderByIdAsc}, with the rows locked until the end of the transaction
+     * (a LEASED run's range; see {@link #findChunkAfterIdForUpdate}).
+     * @param from inclusive lower bound
+     * @param to   inclusive upper bound
+     * @return List of items in ID order
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM Item i WHERE i.id BETWEEN :from AND :to ORDER BY i.id")
+    List<Item> findRangeForUpdate(long from, long to);
+
+    /**
+     * Like {@link #findByIdBetweenWithStatusOtherThan}, with the rows locked until the end of the transaction.
+     * @param from   inclusive lower bound
+     * @param to     inclusive upper bound
+     * @param status status to exclude
+     * @param after  smallest string sorting after {@code status}
+     * @return List of items in ID order
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM Item i WHERE i.id BETWEEN :from AND :to AND (i.status < :status OR i.status >= :after) ORDER BY i.id")
+    List<Item> findRangeWithStatusOtherThanForUpdate(long from, long to, String status, String after);
+
+    long countByStatusLessThan(String status);
+
+    long countByStatusGreaterThanEqual(String status);
+
+    /**
+     * Head of a status range in (status, id) order, read by incremental chunked processing.
+     * The rows are locked until the end of the transaction, like {@link #findChunkAfterIdForUpdate}.
+     * @param status exclusive upper bound
+     * @param limit  maximum number of items to return
+     * @return List of items ordered by status and ID
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<Item> findByStatusLessThanOrderByStatusAscIdAsc(String status, Limit limit);
+
+    /**
+     * Head of a status range in (status, id) order, read by incremental chunked processing, rows locked.
+     * @param status inclusive lower bound
+     * @param limit  maximum number of items to return
+     * @return List of items ordered by status and ID
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<Item> findByStatusGreaterThanEqualOrderByStatusAscIdAsc(String status, Limit limit);
+
+    /**
+     * Overwrites an item with a single UPDATE statement, without loading it first, and bumps its version.
+     * @param version expected current version, or null to update whatever version is stored
+     * @return number of rows updated: 0 if the ID does not exist or the version did not match
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE Item i SET i.name = :name, i.description = :description, i.status = :status, i.email = :email, " +
+            "i.version = i.version + 1 WHERE i.id = :id AND (:version IS NULL OR i.version = :version)")
+    int updateById(Long id, String name, String description, String status, String email, Long version);
+
+    /**
+     * Deletes an item with a single DELETE statement, without loading it first.
+     * @param version expected current version, or null to delete whatever version is stored
+     * @return number of rows deleted: 0 if the ID does not exist or the version did not match
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM Item i WHERE i.id = :id AND (:version IS NULL OR i.version = :version)")
+    int deleteByIdAndVersion(Long id, Long version);
 }
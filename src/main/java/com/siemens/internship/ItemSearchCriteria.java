@@ -0,0 +1,18 @@
+package com.siemens.internship;
+
+import lombok.Value;
+
+/**
+ * Filters of GET /api/items/search; null fields are not applied.
+ */
+@Value
+public class ItemSearchCriteria {
+
+    String status;
+
+    String email;
+
+    String emailPrefix;
+
+    String namePrefix;
+}
@@ -0,0 +1,19 @@
+package com.siemens.internship;
+
+import java.util.List;
+
+/**
+ * Dynamic queries that cannot be expressed as derived or @Query methods; implemented by
+ * {@link ItemSearchRepositoryImpl} and exposed through {@link ItemRepository}.
+ */
+public interface ItemSearchRepository {
+
+    /**
+     * Keyset page of items matching every non-null filter, in ID order, projected to {@link ItemSummary}.
+     * @param criteria filters to apply
+     * @param afterId  exclusive lower bound on the ID (last ID of the previous page)
+     * @param limit    maximum number of items to return
+     * @return List of summaries ordered by ID
+     */
+    List<ItemSummary> search(ItemSearchCriteria criteria, long afterId, int limit);
+}
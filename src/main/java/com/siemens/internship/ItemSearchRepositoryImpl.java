@@ -0,0 +1,66 @@
+package com.siemens.internship;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Criteria implementation of {@link ItemSearchRepository}.
+ * Every filter maps onto an index declared on {@link Item}: equality on status (status, id),
+ * equality and prefix on email (email) and prefix on name (name). Prefixes are sent as
+ * LIKE 'prefix%', which the database turns into an index range scan.
+ */
+public class ItemSearchRepositoryImpl implements ItemSearchRepository {
+
+    private static final char LIKE_ESCAPE = '\\';
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<ItemSummary> search(ItemSearchCriteria criteria, long afterId, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ItemSummary> query = cb.createQuery(ItemSummary.class);
+        Root<Item> item = query.from(Item.class);
+
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(cb.greaterThan(item.get("id"), afterId));
+        if (criteria.getStatus() != null) {
+            predicates.add(cb.equal(item.get("status"), criteria.getStatus()));
+        }
+        if (criteria.getEmail() != null) {
+            predicates.add(cb.equal(item.get("email"), criteria.getEmail()));
+        }
+        if (criteria.getEmailPrefix() != null) {
+            predicates.add(cb.like(item.get("email"), likePrefix(criteria.getEmailPrefix()), LIKE_ESCAPE));
+        }
+        if (criteria.getNamePrefix() != null) {
+            predicates.add(cb.like(item.get("name"), likePrefix(criteria.getNamePrefix()), LIKE_ESCAPE));
+        }
+
+        query.select(cb.construct(ItemSummary.class, item.get("id"), item.get("name"), item.get("status"), item.get("email")))
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(cb.asc(item.get("id")));
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    // User input is matched literally: LIKE wildcards in it are escaped
+    private static String likePrefix(String prefix) {
+        StringBuilder pattern = new StringBuilder(prefix.length() + 1);
+        for (char c : prefix.toCharArray()) {
+            if (c == '%' || c == '_' || c == LIKE_ESCAPE) {
+                pattern.append(LIKE_ESCAPE);
+            }
+            pattern.append(c);
+        }
+        return pattern.append('%').toString();
+    }
+}
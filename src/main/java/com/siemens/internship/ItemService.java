@@ -1,29 +1,89 @@
 package com.siemens.internship;
 
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.*;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class ItemService {
+
+    // Read-through cache in front of findById, configured by spring.cache.caffeine.spec
+    static final String ITEM_CACHE = "items";
+
+    static final String PROCESSED = "PROCESSED";
+
+    // Smallest string sorting after PROCESSED: lets incremental runs seek past the (large) PROCESSED
+    // block of the (status, id) index instead of scanning it, which status <> 'PROCESSED' would do
+    static final String AFTER_PROCESSED = PROCESSED + '\u0000';
 	
     @Autowired
     private ItemRepository itemRepository;
-    
-    private static ExecutorService executor = Executors.newFixedThreadPool(10);
-    
-    // Thread-safe list to store processed items
-    private List<Item> processedItems = Collections.synchronizedList(new ArrayList<>()); 
-    
- // Thread-safe counter to track the number of processed items
-    private AtomicInteger processedCount = new AtomicInteger(0);//used AtomicInteger instead of int -> thread-safe
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    // Write batch size of processItemsAsync, which takes no options
+    @Value("${items.processing.chunk-size:500}")
+    private int defaultChunkSize;
+
+    // PER_ITEM runs: read, process and write stages on the item processing executor
+    @Autowired
+    private ItemProcessingPipeline itemProcessingPipeline;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private ItemJsonCache itemJsonCache;
+
+    @Autowired
+    private ProcessingMetrics processingMetrics;
+
+    @Autowired
+    private ItemChangeFeed itemChangeFeed;
+
+    @Autowired
+    private ProcessingCheckpointService processingCheckpointService;
+
+    @Autowired
+    private ProcessingLeaseService processingLeaseService;
+
+    @Autowired
+    private ItemStatusCounters itemStatusCounters;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Runs started through processItemsAsync and processAsync(options, collectItems), by what they were asked to do:
+    // a caller asking for a run identical to one in progress attaches to it instead of starting a duplicate
+    private final SingleFlight<RunKey, ProcessingRun> runsInFlight = new SingleFlight<>();
+
+    // Results are no longer kept in singleton fields: each run gets its own ProcessingRun,
+    // so repeated calls neither accumulate items on the heap nor see each other's results.
 
 
     // CRUD methods
@@ -31,16 +91,228 @@ public class ItemService {
         return itemRepository.findAll();
     }
 
+    /**
+     * Keyset page: items with an ID greater than {@code afterId}, in ID order. No COUNT query is issued.
+     *
+     * @param afterId exclusive lower bound, Long.MIN_VALUE for the first page
+     * @param limit   maximum number of items to return
+     */
+    public List<Item> findPage(long afterId, int limit) {
+        return itemRepository.findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(limit));
+    }
+
+    /**
+     * Keyset page of items matching the given filters, read as lightweight projections.
+     *
+     * @param criteria filters, null fields are ignored
+     * @param afterId  exclusive lower bound, Long.MIN_VALUE for the first page
+     * @param limit    maximum number of items to return
+     */
+    public List<ItemSummary> search(ItemSearchCriteria criteria, long afterId, int limit) {
+        return itemRepository.search(criteria, afterId, limit);
+    }
+
+    /**
+     * Passes every item, in ID order, to {@code action} straight from a database cursor.
+     * Each entity is detached once handled, so the persistence context (and the heap) stays
+     * constant regardless of the table size.
+     *
+     * @param action called once per item, on the calling thread
+     */
+    @Transactional(readOnly = true)
+    public void forEachItem(Consumer<Item> action) {
+        try (Stream<Item> items = itemRepository.streamAllOrderById()) {
+            items.forEach(item -> {
+                action.accept(item);
+                entityManager.detach(item);
+            });
+        }
+    }
+
+    /**
+     * Cached lookup. sync = true makes concurrent misses for one ID share a single load, and an
+     * eviction racing with that load waits for it, so a stale row is never put back after a write.
+     * Absent IDs are cached too; every write path below replaces or evicts the entry.
+     */
+    @Cacheable(cacheNames = ITEM_CACHE, key = "#id", sync = true)
     public Optional<Item> findById(Long id) {
         return itemRepository.findById(id);
     }
 
+    /**
+     * Creates or overwrites an item. An existing row's status is read (and locked) first, so the
+     * status counters move from the right status. An ID that matches no row cannot be kept, since IDs
+     * come from a sequence: the item is inserted under a new ID instead, and counted and published as created.
+     */
+    @CachePut(cacheNames = ITEM_CACHE, key = "#result.id")
     public Item save(Item item) {
-        return itemRepository.save(item);
+        // Status the row had before this write; stays null for a create
+        AtomicReference<String> previousStatus = new AtomicReference<>();
+        Item saved = transactionTemplate.execute(status -> {
+            if (item.getId() != null) {
+                previousStatus.set(itemRepository.findStatusByIdForUpdate(item.getId()));
+                if (previousStatus.get() == null) {
+                    item.setId(null);
+                    item.setVersion(null);
+                }
+            }
+            Item stored = itemRepository.save(item);
+            itemStatusCounters.move(previousStatus.get(), stored.getStatus());
+            return stored;
+        });
+        boolean created = previousStatus.get() == null;
+        itemJsonCache.evict(saved.getId()); // the entity cache entry is replaced by @CachePut
+        itemChangeFeed.publish(created ? ItemChangeType.CREATED : ItemChangeType.UPDATED, saved.getId(), saved.getStatus());
+        return saved;
     }
 
+    @CacheEvict(cacheNames = ITEM_CACHE, key = "#id")
     public void deleteById(Long id) {
-        itemRepository.deleteById(id);
+        transactionTemplate.executeWithoutResult(status -> {
+            String previousStatus = itemRepository.findStatusByIdForUpdate(id);
+            itemRepository.deleteById(id);
+            itemStatusCounters.move(previousStatus, null);
+        });
+        itemJsonCache.evict(id);
+        itemChangeFeed.publish(ItemChangeType.DELETED, id, null);
+    }
+
+    /**
+     * Overwrites an item in one UPDATE statement; the cache entry is evicted once it has committed.
+     * With an expected version the new version is known without reading the row back;
+     * without one the stored row is read once more so the caller gets its actual version.
+     *
+     * @param id              ID of the item to overwrite
+     * @param item            new content (its id and version are ignored)
+     * @param expectedVersion version the caller last saw, or null for an unconditional update
+     * @return the item as stored, empty if the ID does not exist or its version differs
+     */
+    public Optional<Item> update(Long id, Item item, Long expectedVersion) {
+        int updated = transactionTemplate.execute(status -> {
+            String previousStatus = itemRepository.findStatusByIdForUpdate(id);
+            int rows = itemRepository.updateById(id, item.getName(), item.getDescription(), item.getStatus(),
+                    item.getEmail(), expectedVersion);
+            if (rows > 0) {
+                itemStatusCounters.move(previousStatus, item.getStatus());
+            }
+            return rows;
+        });
+        evict(id);
+        if (updated == 0) {
+            return Optional.empty();
+        }
+        itemChangeFeed.publish(ItemChangeType.UPDATED, id, item.getStatus());
+        if (expectedVersion == null) {
+            return itemRepository.findById(id);
+        }
+        return Optional.of(new Item(id, item.getName(), item.getDescription(), item.getStatus(), item.getEmail(),
+                expectedVersion + 1));
+    }
+
+    /**
+     * Deletes an item in one DELETE statement and evicts it once that has committed.
+     *
+     * @param id              ID of the item to delete
+     * @param expectedVersion version the caller last saw, or null for an unconditional delete
+     * @return true if a row was deleted, false if the ID does not exist or its version differs
+     */
+    public boolean delete(Long id, Long expectedVersion) {
+        int deleted = transactionTemplate.execute(status -> {
+            String previousStatus = itemRepository.findStatusByIdForUpdate(id);
+            int rows = itemRepository.deleteByIdAndVersion(id, expectedVersion);
+            if (rows > 0) {
+                itemStatusCounters.move(previousStatus, null);
+            }
+            return rows;
+        });
+        evict(id);
+        if (deleted == 0) {
+            return false;
+        }
+        itemChangeFeed.publish(ItemChangeType.DELETED, id, null);
+        return true;
+    }
+
+    // Tells "not found" from "version mismatch" after a conditional write matched no row
+    public boolean exists(Long id) {
+        return itemRepository.existsById(id);
+    }
+
+    // Bulk methods: one transaction per call, flushed as JDBC batches (hibernate.jdbc.batch_size).
+    // Cache entries are evicted after commit, like the processing paths do.
+
+    /**
+     * Inserts all items in one transaction. IDs come from the pooled item_seq generator, so the
+     * inserts are batched rather than issued one by one.
+     *
+     * @param items new items (already validated)
+     * @return the saved items with their IDs, in input order
+     */
+    public List<Item> createAll(List<Item> items) {
+        List<Item> saved = transactionTemplate.execute(status -> {
+            List<Item> created = itemRepository.saveAll(items);
+            for (Item item : created) {
+                itemStatusCounters.move(null, item.getStatus());
+            }
+            return created;
+        });
+        evictFromCache(saved); // an absent-ID entry may have been cached for a freshly allocated ID
+        publishChanges(ItemChangeType.CREATED, saved);
+        return saved;
+    }
+
+    /**
+     * Copies the given items onto the existing rows with the same IDs, in one transaction.
+     * Existing rows are loaded with a single IN query and flushed as batched UPDATEs.
+     *
+     * @param items items carrying the ID to update (already validated)
+     * @return the updated items by ID; IDs that do not exist are absent
+     */
+    public Map<Long, Item> updateAll(List<Item> items) {
+        Map<Long, Item> updated = transactionTemplate.execute(status -> {
+            Set<Long> ids = items.stream().map(Item::getId).collect(Collectors.toSet());
+            Map<Long, Item> existing = itemRepository.findAllById(ids).stream()
+                    .collect(Collectors.toMap(Item::getId, Function.identity()));
+            for (Item item : items) {
+                Item managed = existing.get(item.getId());
+                if (managed != null) {
+                    itemStatusCounters.move(managed.getStatus(), item.getStatus());
+                    managed.setName(item.getName());
+                    managed.setDescription(item.getDescription());
+                    managed.setStatus(item.getStatus());
+                    managed.setEmail(item.getEmail());
+                }
+            }
+            return existing;
+        });
+        evictFromCache(updated.values());
+        publishChanges(ItemChangeType.UPDATED, updated.values());
+        return updated;
+    }
+
+    /**
+     * Deletes the given IDs with a single DELETE ... WHERE id IN statement.
+     *
+     * @param ids IDs to delete
+     * @return the IDs that existed and were deleted
+     */
+    public Set<Long> deleteAllById(Collection<Long> ids) {
+        Set<Long> deleted = transactionTemplate.execute(status -> {
+            Set<Long> existing = new HashSet<>();
+            for (ItemSummary summary : itemRepository.findSummariesByIdInForUpdate(ids)) {
+                existing.add(summary.getId());
+                itemStatusCounters.move(summary.getStatus(), null);
+            }
+            if (!existing.isEmpty()) {
+                itemRepository.deleteAllByIdInBatch(existing);
+            }
+            return existing;
+        });
+        for (Long id : deleted) {
+            evict(id);
+            itemChangeFeed.publish(ItemChangeType.DELETED, id, null);
+        }
+        return deleted;
     }
 
 
@@ -64,55 +336,271 @@ public class ItemService {
      */
     @Async
     public CompletableFuture<List<Item>> processItemsAsync() {
-    	
-    	// Fetch IDs of all items from the repository
-        List<Long> itemIds = itemRepository.findAllIds();
-        
-        // Store submitted task futures for tracking and waiting
-        List<Future<?>> futures = new ArrayList<>();
-        
-        // Process each item asynchronously using executor threads
-        for (Long id : itemIds) {
-            Future<?> future = executor.submit(() -> {
-                try {
-                    Thread.sleep(100);
-
-                    // Attempt to fetch item by ID
-                    Optional<Item> optionalItem = itemRepository.findById(id);
-                    if (optionalItem.isEmpty()) {
-                        return; // Skip if not found
-                    }
-                    
-                    // Update item status and save
-                    Item item = optionalItem.get();
-                    
-                    item.setStatus("PROCESSED");
-                    
-                    itemRepository.save(item);
-                    
-                    processedItems.add(item);
-                    
-                    processedCount.incrementAndGet(); // modified incremental method to suit the AtomicInteger type
-
-                } catch (InterruptedException e) {
-                    System.out.println("Error: " + e.getMessage());
+        return processCoalesced(new ProcessingOptions(ProcessingMode.PER_ITEM, defaultChunkSize, false), true)
+                .thenApply(ProcessingRun::getItems);
+    }
+
+    /**
+     * Bulk variant of {@link #processItemsAsync()}.
+     * Reads items in keyset chunks of {@code chunkSize} (WHERE id > lastId ORDER BY id) and marks
+     * each chunk as processed inside a single transaction. Dirty checking flushes the whole chunk
+     * on commit as one batched UPDATE (see hibernate.jdbc.batch_size), so a chunk costs one
+     * SELECT and one JDBC batch instead of two round trips and a transaction per row.
+     *
+     * @param chunkSize number of items read and written per transaction, must be positive
+     * @return future completed with every item processed by this run
+     */
+    @Async
+    public CompletableFuture<List<Item>> processItemsInChunksAsync(int chunkSize) {
+        ProcessingRun run = new ProcessingRun(true);
+        process(run, new ProcessingOptions(ProcessingMode.CHUNKED, chunkSize, false));
+        return CompletableFuture.completedFuture(run.getItems());
+    }
+
+    /**
+     * Processes all items and returns the run itself rather than a list.
+     * With {@code collectItems = false} the run keeps only counters and failed IDs, so memory
+     * stays bounded by one chunk (CHUNKED) regardless of the table size.
+     * A call made while an identical run is in progress returns that run once it completes.
+     *
+     * @param options      mode, chunk size and whether to only visit unprocessed items
+     * @param collectItems whether the processed entities are retained
+     * @return future completed with this invocation's results
+     */
+    @Async
+    public CompletableFuture<ProcessingRun> processAsync(ProcessingOptions options, boolean collectItems) {
+        return processCoalesced(options, collectItems);
+    }
+
+    /**
+     * Processes all items into a run created by the caller, so the caller can observe
+     * progress and cancel it while the run is still going (used by processing jobs).
+     *
+     * @param run     accumulator to record into
+     * @param options mode, chunk size and whether to only visit unprocessed items
+     * @return future completed with the same run once it has finished or been cancelled
+     */
+    @Async
+    public CompletableFuture<ProcessingRun> processAsync(ProcessingRun run, ProcessingOptions options) {
+        process(run, options);
+        return CompletableFuture.completedFuture(run);
+    }
+
+    // Runs on the @Async thread: the first caller processes, callers attaching meanwhile wait for its run
+    private CompletableFuture<ProcessingRun> processCoalesced(ProcessingOptions options, boolean collectItems) {
+        return runsInFlight.execute(new RunKey(options, collectItems), () -> {
+            ProcessingRun run = new ProcessingRun(collectItems);
+            process(run, options);
+            return run;
+        });
+    }
+
+    @lombok.Value
+    private static class RunKey {
+        ProcessingOptions options;
+        boolean collectItems;
+    }
+
+    /**
+     * Runs resume: progress is checkpointed with every committed chunk or write batch, and a run
+     * interrupted by a restart or an error is continued by the next run of the same mode and
+     * incremental flag. Completed and cancelled runs delete their checkpoint.
+     */
+    private void process(ProcessingRun run, ProcessingOptions options) {
+        if (options.getMode() == ProcessingMode.LEASED) {
+            // The lease table records which ranges are done, so it is the checkpoint
+            processLeased(run, options.getChunkSize(), options.isIncremental());
+            return;
+        }
+        if (options.getMode() == ProcessingMode.CHUNKED && options.isIncremental()) {
+            // Resumes without a checkpoint: committed chunks leave the status ranges it reads
+            processPendingInChunks(run, options.getChunkSize());
+            return;
+        }
+        ProcessingCheckpoint checkpoint = processingCheckpointService.acquire(options.getMode(), options.isIncremental());
+        if (checkpoint == null) {
+            // Another run of this kind owns the checkpoint; this one is not resumable
+            runWithCheckpoint(run, options, null);
+            return;
+        }
+        run.recordResumed(checkpoint.getProcessedCount(), checkpoint.getFailedCount());
+        boolean ended = false;
+        try {
+            runWithCheckpoint(run, options, checkpoint);
+            ended = true;
+        } finally {
+            if (ended) {
+                processingCheckpointService.complete(checkpoint);
+            } else {
+                processingCheckpointService.release(checkpoint);
+            }
+        }
+    }
+
+    private void runWithCheckpoint(ProcessingRun run, ProcessingOptions options, ProcessingCheckpoint checkpoint) {
+        if (options.getMode() == ProcessingMode.CHUNKED) {
+            processInChunks(run, options.getChunkSize(), checkpoint);
+        } else {
+            processPerItem(run, options.isIncremental(), options.getChunkSize(), checkpoint);
+        }
+    }
+
+    private void processPerItem(ProcessingRun run, boolean incremental, int batchSize, ProcessingCheckpoint checkpoint) {
+        if (incremental) {
+            // Items processed before a resume are no longer pending, but still belong to this run
+            long total = itemRepository.countByStatusLessThan(PROCESSED)
+                    + itemRepository.countByStatusGreaterThanEqual(AFTER_PROCESSED)
+                    + run.getProcessedCount();
+            run.setTotalCount(total);
+            run.setSkippedCount(Math.max(0, itemRepository.count() - total));
+        } else {
+            run.setTotalCount(itemRepository.count());
+        }
+        itemProcessingPipeline.run(run, incremental, batchSize, checkpoint);
+    }
+
+    /**
+     * Full CHUNKED run in ID order. Each chunk commits together with its checkpoint, so a resumed
+     * run continues after the last committed chunk and never redoes one. Chunk rows are locked as they
+     * are read, so a concurrent update or delete waits for the chunk instead of failing its flush.
+     */
+    private void processInChunks(ProcessingRun run, int chunkSize, ProcessingCheckpoint checkpoint) {
+        run.setTotalCount(itemRepository.count());
+        long lastId = checkpoint != null && checkpoint.getLastId() != null ? checkpoint.getLastId() : Long.MIN_VALUE;
+        while (!run.isCancelled()) {
+            final long afterId = lastId;
+            long startNanos = System.nanoTime();
+            List<Item> chunk = transactionTemplate.execute(status -> {
+                List<Item> items = markProcessed(itemRepository.findChunkAfterIdForUpdate(afterId, Limit.of(chunkSize)));
+                if (!items.isEmpty()) {
+                    long chunkLastId = items.get(items.size() - 1).getId();
+                    processingCheckpointService.save(checkpoint, chunkLastId, chunkLastId,
+                            run.getProcessedCount() + items.size(), run.getFailedCount());
                 }
+                return items;
             });
-            
-            futures.add(future);
+            if (chunk == null || chunk.isEmpty()) {
+                break;
+            }
+            processingMetrics.recordChunk(startNanos, chunk.size());
+            run.recordProcessed(chunk);
+            evictFromCache(chunk); // after commit, so a concurrent read cannot reload the old status
+            publishChanges(ItemChangeType.PROCESSED, chunk);
+            lastId = chunk.get(chunk.size() - 1).getId();
         }
-        
-        // Wait for all submitted tasks to complete
-        for (Future<?> future : futures) {
+    }
+
+    /**
+     * LEASED run: claims ranges of {@code rangeSize} IDs from the lease table shared with the other instances
+     * and processes each like a CHUNKED chunk, until every range of the run is done. A range is marked done in
+     * the transaction that processes it, and only while this instance still holds its lease; otherwise another
+     * instance has taken it over and the transaction rolls back. The loop returns only once ranges leased by
+     * other instances are done too, so ranges of an instance that died are taken over when their lease expires.
+     * Range rows are locked as they are read, so concurrent edits wait instead of failing the range; a range
+     * that fails anyway is released at once rather than staying blocked until its lease expires.
+     * The total stays unknown: it depends on how the ranges end up shared.
+     */
+    private void processLeased(ProcessingRun run, int rangeSize, boolean incremental) {
+        processingLeaseService.joinOrStart(rangeSize, incremental);
+        while (!run.isCancelled()) {
+            Optional<ProcessingLease> claimed = processingLeaseService.claim();
+            if (claimed.isEmpty()) {
+                if (!processingLeaseService.hasUnfinished()) {
+                    break;
+                }
+                processingLeaseService.awaitOtherOwners();
+                continue;
+            }
+            ProcessingLease lease = claimed.get();
+            long startNanos = System.nanoTime();
+            List<Item> chunk;
             try {
-                future.get(); // blocks until task is done
-            } catch (InterruptedException | ExecutionException e) {
-                System.out.println("Error in task: " + e.getMessage());
+                chunk = transactionTemplate.execute(status -> {
+                    List<Item> items = markProcessed(lease.isIncremental()
+                            ? itemRepository.findRangeWithStatusOtherThanForUpdate(lease.getRangeFrom(), lease.getRangeTo(), PROCESSED, AFTER_PROCESSED)
+                            : itemRepository.findRangeForUpdate(lease.getRangeFrom(), lease.getRangeTo()));
+                    if (!processingLeaseService.complete(lease)) {
+                        status.setRollbackOnly();
+                        return List.of();
+                    }
+                    return items;
+                });
+            } catch (RuntimeException e) {
+                processingLeaseService.release(lease); // let this or another instance retry the range now
+                throw e;
+            }
+            if (chunk == null || chunk.isEmpty()) {
+                continue;
             }
+            processingMetrics.recordChunk(startNanos, chunk.size());
+            run.recordProcessed(chunk);
+            evictFromCache(chunk);
+            publishChanges(ItemChangeType.PROCESSED, chunk);
+        }
+    }
+
+    /**
+     * Incremental CHUNKED run: walks the (status, id) index over the two key ranges that hold
+     * unprocessed items, statuses sorting before PROCESSED and statuses sorting after it.
+     * PROCESSED rows are never read; they are counted as skipped from two cheap index counts.
+     * Every committed chunk leaves its range, so each chunk simply reads the head of the range again.
+     */
+    private void processPendingInChunks(ProcessingRun run, int chunkSize) {
+        long pending = itemRepository.countByStatusLessThan(PROCESSED)
+                + itemRepository.countByStatusGreaterThanEqual(AFTER_PROCESSED);
+        run.setTotalCount(pending);
+        run.setSkippedCount(Math.max(0, itemRepository.count() - pending));
+
+        boolean beforeProcessed = true;
+        while (!run.isCancelled()) {
+            boolean lowerRange = beforeProcessed;
+            long startNanos = System.nanoTime();
+            List<Item> chunk = transactionTemplate.execute(status -> markProcessed(lowerRange
+                    ? itemRepository.findByStatusLessThanOrderByStatusAscIdAsc(PROCESSED, Limit.of(chunkSize))
+                    : itemRepository.findByStatusGreaterThanEqualOrderByStatusAscIdAsc(AFTER_PROCESSED, Limit.of(chunkSize))));
+            if (chunk == null || chunk.isEmpty()) {
+                if (!beforeProcessed) {
+                    break;
+                }
+                beforeProcessed = false;
+                continue;
+            }
+            processingMetrics.recordChunk(startNanos, chunk.size());
+            run.recordProcessed(chunk);
+            evictFromCache(chunk);
+            publishChanges(ItemChangeType.PROCESSED, chunk);
+        }
+    }
+
+    private Cache itemCache() {
+        return cacheManager.getCache(ITEM_CACHE);
+    }
+
+    private void evictFromCache(Collection<Item> items) {
+        for (Item item : items) {
+            evict(item.getId());
+        }
+    }
+
+    // Both the entity and its encoded JSON
+    private void evict(Long id) {
+        itemCache().evict(id);
+        itemJsonCache.evict(id);
+    }
+
+    private void publishChanges(ItemChangeType type, Collection<Item> items) {
+        for (Item item : items) {
+            itemChangeFeed.publish(type, item.getId(), item.getStatus());
         }
-        // Return the result wrapped in a completed CompletableFuture
-        return CompletableFuture.completedFuture(processedItems);
     }
-    
-}
 
+    // Runs inside the chunk transaction: the loaded items are managed and locked, so setting the status is enough
+    private List<Item> markProcessed(List<Item> chunk) {
+        for (Item item : chunk) {
+            itemStatusCounters.move(item.getStatus(), PROCESSED);
+            item.setStatus(PROCESSED);
+        }
+        return chunk;
+    }
+
+}
@@ -0,0 +1,20 @@
+package com.siemens.internship;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Number of items with one status, as read by the grouped query that seeds and reconciles {@link ItemStatusCounters}.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ItemStatusCount {
+
+    private String status;
+
+    private long count;
+}
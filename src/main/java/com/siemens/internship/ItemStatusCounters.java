@@ -0,0 +1,189 @@
+package com.siemens.internship;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Item counts by status, kept in memory so GET /api/items/stats costs the same for any table size.
+ * Every status has its own LongAdder, whose striped cells let concurrent writers bump one status without
+ * contending on a single variable.
+ * <p>
+ * Counts are seeded with one grouped query once the application is ready, moved by ItemService whenever a
+ * write changes an item's status, and reconciled against that query periodically. Reconciliation corrects
+ * drift from changes this instance does not see, such as other instances sharing the database or plain SQL.
+ */
+@Component
+public class ItemStatusCounters {
+
+    private static final Logger log = LoggerFactory.getLogger(ItemStatusCounters.class);
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final ConcurrentMap<String, LongAdder> counts = new ConcurrentHashMap<>();
+
+    // Shared by a transaction from just before its commit until its moves are applied, exclusive for a
+    // reconciliation while it counts and swaps: no commit can fall between the grouped count and the swap
+    private final ReadWriteLock commitLock = new ReentrantReadWriteLock();
+
+    /**
+     * Records that one item's status changed. Inside a transaction the move is applied once the
+     * transaction commits, so rolled back writes are never counted.
+     *
+     * @param from previous status, null for a created item
+     * @param to   new status, null for a deleted item
+     */
+    public void move(String from, String to) {
+        if (Objects.equals(from, to)) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            // Only exact if nothing reconciles between the write's commit and this call; writes move inside their transaction
+            commitLock.readLock().lock();
+            try {
+                apply(from, to);
+            } finally {
+                commitLock.readLock().unlock();
+            }
+            return;
+        }
+        pendingMoves().merge(new StatusMove(from, to), 1L, Long::sum);
+    }
+
+    /**
+     * @return current counts by status, statuses without items left out
+     */
+    public Map<String, Long> snapshot() {
+        Map<String, Long> snapshot = new TreeMap<>();
+        counts.forEach((status, count) -> {
+            long sum = count.sum();
+            if (sum > 0) {
+                snapshot.put(status, sum);
+            }
+        });
+        return snapshot;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        reconcile();
+    }
+
+    /**
+     * Replaces the counts with those of the grouped query. Commits wait while it counts, so every move is
+     * either in the query result or applied after the swap, never both or neither. The connection is taken
+     * before the lock, so waiting commits cannot hold the connection the query needs.
+     */
+    @Scheduled(fixedDelayString = "${items.stats.reconcile-interval-ms:60000}",
+            initialDelayString = "${items.stats.reconcile-interval-ms:60000}")
+    public void reconcile() {
+        transactionTemplate.executeWithoutResult(tx -> {
+            commitLock.writeLock().lock();
+            try {
+                Map<String, Long> stored = new HashMap<>();
+                for (ItemStatusCount count : itemRepository.countGroupedByStatus()) {
+                    stored.put(count.getStatus(), count.getCount());
+                }
+                Set<String> statuses = new HashSet<>(counts.keySet());
+                statuses.addAll(stored.keySet());
+                long corrected = 0;
+                for (String status : statuses) {
+                    LongAdder count = counter(status);
+                    long delta = stored.getOrDefault(status, 0L) - count.sum();
+                    if (delta != 0) {
+                        count.add(delta);
+                        corrected += Math.abs(delta);
+                    }
+                }
+                if (corrected > 0) {
+                    log.debug("Item status counters reconciled, corrected by {}", corrected);
+                }
+            } finally {
+                commitLock.writeLock().unlock();
+            }
+        });
+    }
+
+    private void apply(String from, String to) {
+        add(from, -1);
+        add(to, 1);
+    }
+
+    private void add(String status, long delta) {
+        if (status == null) {
+            return;
+        }
+        counter(status).add(delta);
+    }
+
+    private LongAdder counter(String status) {
+        return counts.computeIfAbsent(status, s -> new LongAdder());
+    }
+
+    // Moves of the current transaction, applied together after it commits
+    @SuppressWarnings("unchecked")
+    private Map<StatusMove, Long> pendingMoves() {
+        Map<StatusMove, Long> pending = (Map<StatusMove, Long>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            Map<StatusMove, Long> moves = new HashMap<>();
+            TransactionSynchronizationManager.bindResource(this, moves);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                private boolean locked;
+
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    commitLock.readLock().lock();
+                    locked = true;
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(ItemStatusCounters.this);
+                    try {
+                        if (status == STATUS_COMMITTED) {
+                            moves.forEach((move, times) -> {
+                                add(move.getFrom(), -times);
+                                add(move.getTo(), times);
+                            });
+                        }
+                    } finally {
+                        if (locked) {
+                            commitLock.readLock().unlock();
+                        }
+                    }
+                }
+            });
+            pending = moves;
+        }
+        return pending;
+    }
+
+    @lombok.Value
+    private static class StatusMove {
+        String from;
+        String to;
+    }
+}
@@ -0,0 +1,25 @@
+package com.siemens.internship;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Read-only projection returned by GET /api/items/search.
+ * Built directly by the query (SELECT new ...), so only these columns are read and no entity is managed.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ItemSummary {
+
+    private Long id;
+
+    private String name;
+
+    private String status;
+
+    private String email;
+}
@@ -0,0 +1,33 @@
+package com.siemens.internship;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * Outcome of an export to or an import from a file in items.transfer.directory.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ItemTransferResult {
+
+    private String file;
+
+    // Items written (export) or inserted (import)
+    private long itemCount;
+
+    // Import only: lines that were not valid JSON or failed validation
+    private long rejectedCount;
+
+    // At most ItemTransferService.MAX_REJECTED_LINES line numbers, 1-based; rejectedCount is always exact
+    private List<Long> rejectedLines;
+
+    private long bytes;
+
+    private long durationMillis;
+}
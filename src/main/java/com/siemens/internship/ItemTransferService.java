@@ -0,0 +1,276 @@
+package com.siemens.internship;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Exports the item table to, and imports items from, NDJSON files (one item per line, the format of
+ * GET /api/items/stream) in items.transfer.directory. Both directions go through a FileChannel with a
+ * fixed buffer, so memory use does not depend on the table or file size:
+ * <ul>
+ *     <li>export reads from a database cursor and writes the file through the buffer;</li>
+ *     <li>import reads the file buffer by buffer, parses it line by line and inserts batches of
+ *     items-transfer.batch-size items, each in one transaction as batched INSERTs.</li>
+ * </ul>
+ * Only plain file names are accepted, so requests cannot reach files outside the directory.
+ */
+@Service
+public class ItemTransferService {
+
+    static final int BUFFER_SIZE = 1 << 20;
+
+    static final int MAX_REJECTED_LINES = 100;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private Validator validator;
+
+    @Value("${items.transfer.directory:transfer}")
+    private Path directory;
+
+    @Value("${items.transfer.batch-size:2000}")
+    private int batchSize;
+
+    /**
+     * Writes every item, in ID order, to the given file. The file is written under a temporary name and
+     * moved into place once complete, so a failed export never leaves a truncated file behind;
+     * the temporary file is deleted when it fails.
+     *
+     * @param fileName plain file name inside the transfer directory; an existing file is replaced
+     * @throws IllegalArgumentException if the name is not a plain file name
+     */
+    public ItemTransferResult export(String fileName) throws IOException {
+        long startNanos = System.nanoTime();
+        Path target = resolve(fileName);
+        Files.createDirectories(directory);
+        Path partial = target.resolveSibling(fileName + ".partial");
+        AtomicLong exported = new AtomicLong();
+        long bytes;
+        boolean moved = false;
+        try {
+            try (FileChannel channel = FileChannel.open(partial, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+                 ChannelOutputStream out = new ChannelOutputStream(channel, BUFFER_SIZE);
+                 JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                generator.setRootValueSeparator(null);
+                try {
+                    itemService.forEachItem(item -> {
+                        try {
+                            objectMapper.writeValue(generator, item);
+                            generator.writeRaw('\n');
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                        exported.incrementAndGet();
+                    });
+                } catch (UncheckedIOException e) {
+                    throw e.getCause();
+                }
+                generator.flush();
+                out.flush();
+                channel.force(false);
+                bytes = channel.size();
+            }
+            Files.move(partial, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            moved = true;
+        } finally {
+            if (!moved) {
+                Files.deleteIfExists(partial); // a failed export leaves nothing behind
+            }
+        }
+        return new ItemTransferResult(fileName, exported.get(), 0, List.of(), bytes, elapsedMillis(startNanos));
+    }
+
+    /**
+     * Inserts every valid line of the given file as a new item; IDs and versions in the file are ignored,
+     * so the file can be loaded into any environment. Lines that are not valid JSON or fail validation are
+     * skipped and reported. Batches already inserted stay inserted if a later one fails.
+     *
+     * @param fileName plain file name inside the transfer directory
+     * @throws IllegalArgumentException if the name is not a plain file name
+     * @throws NoSuchFileException      if the file does not exist
+     */
+    public ItemTransferResult importItems(String fileName) throws IOException {
+        long startNanos = System.nanoTime();
+        Path source = resolve(fileName);
+        if (!Files.isRegularFile(source)) {
+            throw new NoSuchFileException(fileName);
+        }
+        ObjectReader reader = objectMapper.readerFor(Item.class);
+        ImportState state = new ImportState();
+        long bytes;
+        try (FileChannel channel = FileChannel.open(source, StandardOpenOption.READ)) {
+            bytes = channel.size();
+            // Heap buffer: lines are parsed straight from its backing array
+            ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+            boolean endOfFile = false;
+            while (!endOfFile) {
+                endOfFile = channel.read(buffer) == -1;
+                buffer.flip();
+                byte[] data = buffer.array();
+                int lineStart = 0;
+                int limit = buffer.limit();
+                for (int i = 0; i < limit; i++) {
+                    if (data[i] == '\n') {
+                        importLine(reader, data, lineStart, i, state);
+                        lineStart = i + 1;
+                    }
+                }
+                if (endOfFile && lineStart < limit) {
+                    importLine(reader, data, lineStart, limit, state); // last line without a trailing newline
+                    lineStart = limit;
+                }
+                if (lineStart == 0 && limit == buffer.capacity()) {
+                    throw new IOException("Line " + (state.lineNumber + 1) + " of " + fileName
+                            + " is longer than " + BUFFER_SIZE + " bytes");
+                }
+                // Keep the incomplete last line for the next read
+                buffer.position(lineStart);
+                buffer.compact();
+            }
+        }
+        state.flush();
+        return new ItemTransferResult(fileName, state.imported, state.rejected, state.rejectedLines, bytes,
+                elapsedMillis(startNanos));
+    }
+
+    private void importLine(ObjectReader reader, byte[] data, int from, int to, ImportState state) {
+        state.lineNumber++;
+        while (from < to && Character.isWhitespace(data[to - 1])) {
+            to--; // \r of CRLF files
+        }
+        if (from == to) {
+            return;
+        }
+        Item item;
+        try {
+            item = reader.readValue(data, from, to - from);
+        } catch (IOException e) {
+            state.reject();
+            return;
+        }
+        if (item == null || !validator.validate(item).isEmpty()) {
+            state.reject();
+            return;
+        }
+        item.setId(null);
+        item.setVersion(null);
+        state.add(item);
+    }
+
+    private Path resolve(String fileName) {
+        if (fileName == null || fileName.isBlank() || fileName.equals(".") || fileName.equals("..")
+                || !Path.of(fileName).getFileName().toString().equals(fileName)) {
+            throw new IllegalArgumentException("Not a plain file name: " + fileName);
+        }
+        return directory.resolve(fileName);
+    }
+
+    private static long elapsedMillis(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+
+    // Progress of one import: the pending batch and the counts reported at the end
+    private class ImportState {
+
+        private final List<Item> batch = new ArrayList<>(batchSize);
+        private final List<Long> rejectedLines = new ArrayList<>();
+        private long lineNumber;
+        private long imported;
+        private long rejected;
+
+        void add(Item item) {
+            batch.add(item);
+            if (batch.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        void reject() {
+            rejected++;
+            if (rejectedLines.size() < MAX_REJECTED_LINES) {
+                rejectedLines.add(lineNumber);
+            }
+        }
+
+        void flush() {
+            if (!batch.isEmpty()) {
+                imported += itemService.createAll(batch).size();
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Collects writes in one large buffer and hands it to the channel only when full or flushed,
+     * so the file is written in a few large writes instead of many small ones.
+     */
+    private static class ChannelOutputStream extends OutputStream {
+
+        private final FileChannel channel;
+        private final ByteBuffer buffer;
+
+        ChannelOutputStream(FileChannel channel, int bufferSize) {
+            this.channel = channel;
+            this.buffer = ByteBuffer.allocateDirect(bufferSize);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if (!buffer.hasRemaining()) {
+                drain();
+            }
+            buffer.put((byte) b);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            while (length > 0) {
+                if (!buffer.hasRemaining()) {
+                    drain();
+                }
+                int chunk = Math.min(length, buffer.remaining());
+                buffer.put(bytes, offset, chunk);
+                offset += chunk;
+                length -= chunk;
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            drain();
+        }
+
+        private void drain() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+    }
+}
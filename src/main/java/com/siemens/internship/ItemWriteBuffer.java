@@ -0,0 +1,221 @@
+package com.siemens.internship;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.context.WebServerGracefulShutdownLifecycle;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind buffer for POST /api/items (items.write-behind.enabled).
+ * Creates are queued and a single flusher thread inserts them through {@link ItemService#createAll},
+ * one transaction per batch, once max-batch-size items are waiting or the oldest has waited max-delay-ms.
+ * Each caller's future completes only after its batch has committed, so a 201 still means durable:
+ * the commit cost is shared by the batch, as in a database group commit.
+ */
+@Component
+public class ItemWriteBuffer implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(ItemWriteBuffer.class);
+
+    // How long the idle flusher sleeps before re-checking whether it should stop
+    private static final long IDLE_POLL_MS = 100;
+
+    private record PendingWrite(Item item, CompletableFuture<Item> result, long enqueuedNanos) {
+    }
+
+    private final ItemService itemService;
+    private final boolean enabled;
+    private final int maxBatchSize;
+    private final long maxDelayNanos;
+    private final long offerTimeoutMs;
+    private final BlockingQueue<PendingWrite> queue;
+    private final DistributionSummary batchSize;
+    private final Timer flushLatency;
+    private final Timer commitWait;
+    private volatile boolean running;
+    private Thread flusher;
+
+    /**
+     * @param maxBatchSize   items flushed in one transaction at most
+     * @param maxDelayMs     longest a create waits for its batch to fill up
+     * @param queueCapacity  creates buffered at most; beyond that callers wait up to offerTimeoutMs
+     * @param offerTimeoutMs how long a caller waits for queue space before the create is rejected
+     */
+    public ItemWriteBuffer(ItemService itemService,
+                           MeterRegistry registry,
+                           @Value("${items.write-behind.enabled:false}") boolean enabled,
+                           @Value("${items.write-behind.max-batch-size:500}") int maxBatchSize,
+                           @Value("${items.write-behind.max-delay-ms:5}") long maxDelayMs,
+                           @Value("${items.write-behind.queue-capacity:10000}") int queueCapacity,
+                           @Value("${items.write-behind.offer-timeout-ms:1000}") long offerTimeoutMs) {
+        this.itemService = itemService;
+        this.enabled = enabled;
+        this.maxBatchSize = maxBatchSize;
+        this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(maxDelayMs);
+        this.offerTimeoutMs = offerTimeoutMs;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        batchSize = DistributionSummary.builder("items.write-behind.batch.size")
+                .description("Items inserted per write-behind transaction")
+                .register(registry);
+        flushLatency = Timer.builder("items.write-behind.flush")
+                .description("Time to insert and commit one write-behind batch")
+                .register(registry);
+        commitWait = Timer.builder("items.write-behind.wait")
+                .description("Time from enqueueing a create until its batch has committed")
+                .register(registry);
+        Gauge.builder("items.write-behind.queued", queue, BlockingQueue::size)
+                .description("Creates waiting to be flushed")
+                .register(registry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Queues a create.
+     *
+     * @param item validated item to insert
+     * @return future completed with the saved item once its batch has committed
+     * @throws RejectedExecutionException if the buffer is stopped or stays full for offer-timeout-ms
+     */
+    public CompletableFuture<Item> submit(Item item) {
+        if (!running) {
+            throw new RejectedExecutionException("Write-behind buffer is not running");
+        }
+        PendingWrite write = new PendingWrite(item, new CompletableFuture<>(), System.nanoTime());
+        try {
+            if (!queue.offer(write, offerTimeoutMs, TimeUnit.MILLISECONDS)) {
+                throw new RejectedExecutionException("Write-behind queue is full");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrupted while waiting for queue space", e);
+        }
+        return write.result();
+    }
+
+    @Override
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        flusher = new Thread(this::flushLoop, "item-write-behind");
+        flusher.start();
+    }
+
+    /**
+     * Stops accepting creates and waits for the flusher to commit what is already queued.
+     */
+    @Override
+    public void stop() {
+        running = false;
+        if (flusher != null) {
+            try {
+                flusher.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            flusher = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Below the web server's phases (graceful shutdown, then start/stop, 1024 apart): the buffer starts
+     * before the server accepts requests and stops only once it has stopped, so creates still in flight
+     * during shutdown are queued and flushed rather than rejected.
+     */
+    @Override
+    public int getPhase() {
+        return WebServerGracefulShutdownLifecycle.SMART_LIFECYCLE_PHASE - 2048;
+    }
+
+    private void flushLoop() {
+        List<PendingWrite> batch = new ArrayList<>(maxBatchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingWrite first = queue.poll(IDLE_POLL_MS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                // Fill up until the size limit or the oldest write's deadline, whichever comes first
+                long deadline = first.enqueuedNanos() + maxDelayNanos;
+                while (batch.size() < maxBatchSize) {
+                    long wait = deadline - System.nanoTime();
+                    PendingWrite next = wait > 0 ? queue.poll(wait, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                queue.drainTo(batch); // flush what we have and stop
+                running = false;
+            }
+            if (!batch.isEmpty()) {
+                flush(batch);
+                batch.clear();
+            }
+        }
+        // A create that raced with stop() must not wait forever
+        for (PendingWrite late; (late = queue.poll()) != null; ) {
+            late.result().completeExceptionally(new RejectedExecutionException("Write-behind buffer stopped"));
+        }
+    }
+
+    private void flush(List<PendingWrite> batch) {
+        long startNanos = System.nanoTime();
+        List<Item> items = new ArrayList<>(batch.size());
+        for (PendingWrite write : batch) {
+            items.add(write.item());
+        }
+        try {
+            List<Item> saved = itemService.createAll(items);
+            for (int i = 0; i < batch.size(); i++) {
+                complete(batch.get(i), saved.get(i));
+            }
+        } catch (RuntimeException e) {
+            // One bad row must not fail the whole batch: fall back to one transaction per item
+            log.warn("Write-behind batch of {} items failed, saving them one by one", batch.size(), e);
+            for (PendingWrite write : batch) {
+                Item item = write.item();
+                item.setId(null); // the rolled back insert may have assigned one
+                item.setVersion(null);
+                try {
+                    complete(write, itemService.save(item));
+                } catch (RuntimeException itemFailure) {
+                    write.result().completeExceptionally(itemFailure);
+                }
+            }
+        }
+        flushLatency.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        batchSize.record(batch.size());
+    }
+
+    private void complete(PendingWrite write, Item saved) {
+        commitWait.record(System.nanoTime() - write.enqueuedNanos(), TimeUnit.NANOSECONDS);
+        write.result().complete(saved);
+    }
+}
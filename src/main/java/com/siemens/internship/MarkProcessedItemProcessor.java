@@ -0,0 +1,22 @@
+package com.siemens.internship;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Default processing step: sets the status to PROCESSED after the simulated per-item work.
+ */
+@Component
+public class MarkProcessedItemProcessor implements ItemProcessor {
+
+    // Simulated per-item work (benchmarks set it to 0 to measure database cost only)
+    @Value("${items.processing.simulated-delay-ms:100}")
+    private long simulatedDelayMs;
+
+    @Override
+    public Item process(Item item) throws InterruptedException {
+        Thread.sleep(simulatedDelayMs);
+        item.setStatus(ItemService.PROCESSED);
+        return item;
+    }
+}
@@ -0,0 +1,39 @@
+package com.siemens.internship;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * Progress of an unfinished processing run, committed in the same transaction as the items it covers.
+ * There is one row per kind of run (mode and incremental flag); the next run of that kind resumes
+ * from it instead of starting at the first ID. The row is deleted once a run completes or is cancelled.
+ */
+@Entity
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProcessingCheckpoint {
+
+    // Kind of run, see ProcessingCheckpointService.keyOf
+    @Id
+    private String id;
+
+    // Every ID up to and including this one has been handled; null before the first commit
+    private Long lastId;
+
+    // Highest ID written so far; IDs between lastId and this one may already be done
+    private Long highestWrittenId;
+
+    private long processedCount;
+
+    private long failedCount;
+
+    private Instant updatedAt;
+}
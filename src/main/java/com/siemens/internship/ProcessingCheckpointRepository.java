@@ -0,0 +1,8 @@
+package com.siemens.internship;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ProcessingCheckpointRepository extends JpaRepository<ProcessingCheckpoint, String> {
+}
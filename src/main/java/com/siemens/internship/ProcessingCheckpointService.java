@@ -0,0 +1,91 @@
+package com.siemens.internship;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Hands out and records {@link ProcessingCheckpoint}s.
+ * A checkpoint is saved in the transaction that commits the items it covers, so after a restart
+ * the stored progress and the stored items always agree: a chunk is either done and checkpointed,
+ * or neither, and resuming redoes only work that was never committed.
+ */
+@Service
+public class ProcessingCheckpointService {
+
+    @Autowired
+    private ProcessingCheckpointRepository checkpointRepository;
+
+    // Kinds of run executing in this JVM; a second concurrent run of the same kind runs without a checkpoint
+    private final Set<String> active = ConcurrentHashMap.newKeySet();
+
+    static String keyOf(ProcessingMode mode, boolean incremental) {
+        return incremental ? mode.name() + ":incremental" : mode.name();
+    }
+
+    /**
+     * Claims the checkpoint for a kind of run; it must be handed back through
+     * {@link #complete} or {@link #release}.
+     *
+     * @return the checkpoint left by an interrupted run of this kind, a fresh one if there is none,
+     * or null while another run of this kind is executing
+     */
+    public ProcessingCheckpoint acquire(ProcessingMode mode, boolean incremental) {
+        String key = keyOf(mode, incremental);
+        if (!active.add(key)) {
+            return null;
+        }
+        try {
+            return checkpointRepository.findById(key)
+                    .orElseGet(() -> new ProcessingCheckpoint(key, null, null, 0, 0, null));
+        } catch (RuntimeException e) {
+            active.remove(key);
+            throw e;
+        }
+    }
+
+    /**
+     * Records progress inside the caller's transaction, the one that commits the covered items.
+     *
+     * @param checkpoint       checkpoint of the run, null for a run without one (nothing is recorded)
+     * @param lastId           every ID up to and including this one has been handled
+     * @param highestWrittenId highest ID written so far
+     * @param processedCount   items processed by the run, including earlier attempts
+     * @param failedCount      items that failed, including earlier attempts
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void save(ProcessingCheckpoint checkpoint, long lastId, long highestWrittenId, long processedCount, long failedCount) {
+        if (checkpoint == null) {
+            return;
+        }
+        checkpoint.setLastId(lastId);
+        checkpoint.setHighestWrittenId(highestWrittenId);
+        checkpoint.setProcessedCount(processedCount);
+        checkpoint.setFailedCount(failedCount);
+        checkpoint.setUpdatedAt(Instant.now());
+        checkpointRepository.save(checkpoint);
+    }
+
+    /**
+     * Ends a run that finished or was cancelled: the checkpoint is deleted, so the next run starts from the first ID.
+     */
+    public void complete(ProcessingCheckpoint checkpoint) {
+        try {
+            checkpointRepository.deleteById(checkpoint.getId());
+        } finally {
+            release(checkpoint);
+        }
+    }
+
+    /**
+     * Lets go of a checkpoint without deleting it, after a run failed; the next run of this kind resumes from it.
+     */
+    public void release(ProcessingCheckpoint checkpoint) {
+        active.remove(checkpoint.getId());
+    }
+}
@@ -0,0 +1,152 @@
+package com.siemens.internship;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.task.SimpleAsyncTaskExecutorBuilder;
+import org.springframework.boot.task.ThreadPoolTaskExecutorBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import javax.sql.DataSource;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executor for the per-item processing tasks.
+ * Replaces the static, never shut down {@code Executors.newFixedThreadPool(10)} in ItemService with a
+ * Spring-managed bean: it is configurable, and Spring waits for running tasks on context shutdown.
+ * Orchestration of a run (the @Async method itself) stays on a separate applicationTaskExecutor, so a
+ * run never waits for a slot on the executor its own tasks need.
+ */
+@Configuration
+public class ProcessingExecutorConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(ProcessingExecutorConfig.class);
+
+    static final String THREAD_NAME_PREFIX = "item-processing-";
+
+    /**
+     * Declaring any Executor bean makes Boot back off from its applicationTaskExecutor, and @Async
+     * would then pick itemProcessingExecutor. This re-creates Boot's default from its builders
+     * (spring.task.execution.* and spring.threads.virtual.enabled still apply); the "taskExecutor"
+     * name is what @Async looks up when several executors exist.
+     */
+    @Bean(name = {"taskExecutor", "applicationTaskExecutor"})
+    public AsyncTaskExecutor applicationTaskExecutor(
+            ThreadPoolTaskExecutorBuilder threadPoolTaskExecutorBuilder,
+            SimpleAsyncTaskExecutorBuilder simpleAsyncTaskExecutorBuilder,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        return virtualThreads ? simpleAsyncTaskExecutorBuilder.build() : threadPoolTaskExecutorBuilder.build();
+    }
+
+    /**
+     * Every task holds a JDBC connection while it runs, so the concurrency limit defaults to the
+     * connection pool size minus the connections reserved for request threads. Beyond the limit,
+     * virtual threads block the submitter until a task ends. The platform thread pool first queues up to
+     * {@code queueCapacity} tasks; once the queue is full, the submitting thread runs the task itself,
+     * which throttles the submitter instead of rejecting work.
+     *
+     * @param virtualThreads       run each task on its own virtual thread; on a runtime older than Java 21
+     *                             this logs a warning and falls back to the platform thread pool
+     * @param maxConcurrency       explicit limit, or 0 to derive it from the connection pool
+     * @param reservedConnections  pool connections left for the CRUD endpoints when deriving the limit
+     * @param queueCapacity        tasks queued ahead of the platform thread pool
+     * @param awaitTerminationSecs how long shutdown waits for running tasks
+     */
+    @Bean(name = "itemProcessingExecutor")
+    public AsyncTaskExecutor itemProcessingExecutor(
+            DataSource dataSource,
+            MeterRegistry meterRegistry,
+            ProcessingMetrics processingMetrics,
+            @Value("${items.processing.executor.virtual-threads:false}") boolean virtualThreads,
+            @Value("${items.processing.executor.max-concurrency:0}") int maxConcurrency,
+            @Value("${items.processing.executor.reserved-connections:2}") int reservedConnections,
+            @Value("${items.processing.executor.queue-capacity:1000}") int queueCapacity,
+            @Value("${items.processing.executor.await-termination-seconds:30}") int awaitTerminationSecs) {
+        int concurrency = maxConcurrency > 0 ? maxConcurrency : derivedConcurrency(dataSource, reservedConnections);
+        AsyncTaskExecutor executor = createExecutor(virtualThreads, concurrency, queueCapacity, awaitTerminationSecs);
+        log.info("Item processing executor: {} threads, concurrency limit {}",
+                executor instanceof SimpleAsyncTaskExecutor ? "virtual" : "platform", concurrency);
+        instrument(executor, meterRegistry, processingMetrics);
+        return executor;
+    }
+
+    static boolean virtualThreadsSupported() {
+        return Runtime.version().feature() >= 21;
+    }
+
+    static AsyncTaskExecutor createExecutor(boolean virtualThreads, int concurrency, int queueCapacity, int awaitTerminationSecs) {
+        if (virtualThreads && !virtualThreadsSupported()) {
+            log.warn("Virtual threads need Java 21, but this runtime is Java {}; using platform threads instead",
+                    Runtime.version().feature());
+        } else if (virtualThreads) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(THREAD_NAME_PREFIX);
+            executor.setVirtualThreads(true);
+            executor.setConcurrencyLimit(concurrency);
+            executor.setTaskTerminationTimeout(awaitTerminationSecs * 1000L);
+            return executor;
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix(THREAD_NAME_PREFIX);
+        executor.setCorePoolSize(concurrency);
+        executor.setMaxPoolSize(concurrency);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(awaitTerminationSecs);
+        return executor; // initialized and shut down by the container (or by the caller outside of it)
+    }
+
+    /**
+     * Thread pools are bound by Boot as executor.* meters (active, queued, pool size); here we only add
+     * a rejection counter. The virtual-thread executor has no pool, so its active tasks are counted
+     * by a task decorator instead.
+     */
+    private static void instrument(AsyncTaskExecutor executor, MeterRegistry meterRegistry, ProcessingMetrics processingMetrics) {
+        if (executor instanceof ThreadPoolTaskExecutor pool) {
+            ThreadPoolExecutor.CallerRunsPolicy callerRuns = new ThreadPoolExecutor.CallerRunsPolicy();
+            pool.setRejectedExecutionHandler((task, threadPool) -> {
+                processingMetrics.recordRejection();
+                callerRuns.rejectedExecution(task, threadPool);
+            });
+        } else if (executor instanceof SimpleAsyncTaskExecutor simple) {
+            AtomicInteger active = new AtomicInteger();
+            simple.setTaskDecorator(task -> () -> {
+                active.incrementAndGet();
+                try {
+                    task.run();
+                } finally {
+                    active.decrementAndGet();
+                }
+            });
+            Gauge.builder("items.processing.executor.active", active, AtomicInteger::get)
+                    .description("Processing tasks currently running on virtual threads")
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * @return how many tasks the executor runs at the same time, i.e. how many workers a run should start
+     */
+    static int concurrencyOf(AsyncTaskExecutor executor) {
+        if (executor instanceof ThreadPoolTaskExecutor pool) {
+            return pool.getMaxPoolSize();
+        }
+        if (executor instanceof SimpleAsyncTaskExecutor simple && simple.getConcurrencyLimit() > 0) {
+            return simple.getConcurrencyLimit();
+        }
+        return 1;
+    }
+
+    private static int derivedConcurrency(DataSource dataSource, int reservedConnections) {
+        int poolSize = dataSource instanceof HikariDataSource hikari ? hikari.getMaximumPoolSize() : 10;
+        return Math.max(1, poolSize - reservedConnections);
+    }
+}
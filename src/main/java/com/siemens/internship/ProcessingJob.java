@@ -0,0 +1,68 @@
+package com.siemens.internship;
+
+import java.time.Instant;
+
+/**
+ * A processing run submitted through the job API.
+ * Holds the live {@link ProcessingRun} so status requests can read progress while it is still running.
+ */
+public class ProcessingJob {
+
+    public enum State {
+        RUNNING, COMPLETED, CANCELLED, FAILED
+    }
+
+    private final String id;
+    private final ProcessingMode mode;
+    private final ProcessingRun run;
+    private final Instant submittedAt = Instant.now();
+    private volatile State state = State.RUNNING;
+    private volatile Instant finishedAt;
+    private volatile String error;
+
+    public ProcessingJob(String id, ProcessingMode mode, ProcessingRun run) {
+        this.id = id;
+        this.mode = mode;
+        this.run = run;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public ProcessingRun getRun() {
+        return run;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    public boolean isFinished() {
+        return state != State.RUNNING;
+    }
+
+    /**
+     * Called once by the completion callback of the underlying future.
+     *
+     * @param failure the exception the run ended with, or null if it finished normally
+     */
+    void finish(Throwable failure) {
+        if (failure != null) {
+            error = failure.getMessage();
+            state = State.FAILED;
+        } else {
+            state = run.isCancelled() ? State.CANCELLED : State.COMPLETED;
+        }
+        finishedAt = Instant.now();
+    }
+
+    public ProcessingJobStatus toStatus() {
+        return new ProcessingJobStatus(id, state, mode, run.getProcessedCount(), run.getFailedCount(),
+                run.getSkippedCount(), run.getRemainingCount(), run.getItemsPerSecond(), submittedAt, finishedAt, error);
+    }
+}
@@ -0,0 +1,100 @@
+package com.siemens.internship;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+
+@RestController
+@RequestMapping("/api/items/process/jobs")
+public class ProcessingJobController {
+
+    @Autowired
+    private ProcessingJobService processingJobService;
+
+    @Value("${items.admission.batch.retry-after-seconds:5}")
+    private long retryAfterSeconds;
+
+    /**
+     * POST /api/items/process/jobs
+     * Starts processing all items in the background and returns immediately.
+     *
+     * @param mode      PER_ITEM (default), CHUNKED or LEASED
+     * @param chunkSize items per transaction in CHUNKED mode
+     * @param incremental only process items not yet PROCESSED
+     * @return 202 ACCEPTED with the job status and its URL in Location, 400 BAD REQUEST for a non-positive chunk size,
+     *         503 SERVICE UNAVAILABLE with Retry-After while items.processing.jobs.max-running jobs are running
+     */
+    @PostMapping
+    public ResponseEntity<ProcessingJobStatus> submitJob(
+            @RequestParam(defaultValue = "${items.processing.default-mode:PER_ITEM}") ProcessingMode mode,
+            @RequestParam(defaultValue = "${items.processing.chunk-size:500}") int chunkSize,
+            @RequestParam(defaultValue = "false") boolean incremental,
+            UriComponentsBuilder uriBuilder) {
+        if (chunkSize <= 0) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        ProcessingJob job;
+        try {
+            job = processingJobService.submit(new ProcessingOptions(mode, chunkSize, incremental));
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds))
+                    .build();
+        }
+        return ResponseEntity.accepted()
+                .location(uriBuilder.path("/api/items/process/jobs/{jobId}").build(job.getId()))
+                .body(job.toStatus());
+    }
+
+    /**
+     * GET /api/items/process/jobs
+     * Lists the jobs still retained in memory.
+     *
+     * @return 200 OK with the status of every retained job
+     */
+    @GetMapping
+    public ResponseEntity<List<ProcessingJobStatus>> getJobs() {
+        List<ProcessingJobStatus> jobs = processingJobService.findAll().stream()
+                .map(ProcessingJob::toStatus)
+                .toList();
+        return new ResponseEntity<>(jobs, HttpStatus.OK);
+    }
+
+    /**
+     * GET /api/items/process/jobs/{jobId}
+     * Returns live progress: processed, failed and remaining counts and throughput.
+     *
+     * @param jobId ID returned on submission
+     * @return 200 OK with the job status, 404 NOT FOUND if the job is unknown or was evicted
+     */
+    @GetMapping("/{jobId}")
+    public ResponseEntity<ProcessingJobStatus> getJob(@PathVariable String jobId) {
+        return processingJobService.find(jobId)
+                .map(job -> new ResponseEntity<>(job.toStatus(), HttpStatus.OK))
+                .orElse(new ResponseEntity<>(HttpStatus.NOT_FOUND));
+    }
+
+    /**
+     * DELETE /api/items/process/jobs/{jobId}
+     * Requests cancellation. Items already processed stay processed.
+     *
+     * @param jobId ID returned on submission
+     * @return 202 ACCEPTED if cancellation was requested, 409 CONFLICT if the job already finished,
+     *         404 NOT FOUND if the job is unknown
+     */
+    @DeleteMapping("/{jobId}")
+    public ResponseEntity<ProcessingJobStatus> cancelJob(@PathVariable String jobId) {
+        return processingJobService.find(jobId)
+                .map(job -> processingJobService.cancel(job)
+                        ? new ResponseEntity<>(job.toStatus(), HttpStatus.ACCEPTED)
+                        : new ResponseEntity<>(job.toStatus(), HttpStatus.CONFLICT))
+                .orElse(new ResponseEntity<>(HttpStatus.NOT_FOUND));
+    }
+}
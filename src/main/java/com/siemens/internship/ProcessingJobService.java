@@ -0,0 +1,107 @@
+package com.siemens.internship;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Submits processing runs as background jobs and keeps track of them by ID.
+ * The run itself executes through {@link ItemService#processAsync(ProcessingRun, ProcessingOptions)},
+ * i.e. on the @Async executor, so no request thread waits for it. A job outlives the request that submitted it,
+ * and so its admission permit: the number of jobs running at once is capped here instead.
+ */
+@Service
+public class ProcessingJobService {
+
+    @Autowired
+    private ItemService itemService;
+
+    // Finished jobs beyond this number are forgotten, oldest first
+    @Value("${items.processing.jobs.max-retained:100}")
+    private int maxRetainedJobs;
+
+    // Jobs running at once; further submissions are rejected until one finishes
+    @Value("${items.processing.jobs.max-running:2}")
+    private int maxRunningJobs;
+
+    private final ConcurrentMap<String, ProcessingJob> jobs = new ConcurrentHashMap<>();
+
+    private Semaphore runningJobs;
+
+    @PostConstruct
+    void initRunningJobs() {
+        runningJobs = new Semaphore(maxRunningJobs);
+    }
+
+    /**
+     * Starts a summary-only run in the background.
+     *
+     * @param options mode, chunk size and whether to only visit unprocessed items
+     * @return the submitted job, already RUNNING
+     * @throws RejectedExecutionException if max-running jobs are running already
+     */
+    public ProcessingJob submit(ProcessingOptions options) {
+        if (!runningJobs.tryAcquire()) {
+            throw new RejectedExecutionException(maxRunningJobs + " processing jobs are running already");
+        }
+        ProcessingJob job;
+        try {
+            evictFinishedJobs();
+            job = new ProcessingJob(UUID.randomUUID().toString(), options.getMode(), new ProcessingRun(false));
+            jobs.put(job.getId(), job);
+        } catch (RuntimeException e) {
+            runningJobs.release();
+            throw e;
+        }
+        // The slot is free again before the job reports itself finished, so a client seeing it finished can submit
+        itemService.processAsync(job.getRun(), options)
+                .whenComplete((run, failure) -> {
+                    runningJobs.release();
+                    job.finish(failure);
+                });
+        return job;
+    }
+
+    public Optional<ProcessingJob> find(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId));
+    }
+
+    public Collection<ProcessingJob> findAll() {
+        return jobs.values();
+    }
+
+    /**
+     * Requests cancellation of a running job. Work already committed stays committed.
+     *
+     * @return true if the job was still running, false if it had already finished
+     */
+    public boolean cancel(ProcessingJob job) {
+        if (job.isFinished()) {
+            return false;
+        }
+        job.getRun().cancel();
+        return true;
+    }
+
+    private void evictFinishedJobs() {
+        long excess = jobs.size() - maxRetainedJobs + 1;
+        if (excess <= 0) {
+            return;
+        }
+        jobs.values().stream()
+                .filter(ProcessingJob::isFinished)
+                .sorted(Comparator.comparing(ProcessingJob::getFinishedAt))
+                .limit(excess)
+                .forEach(job -> jobs.remove(job.getId()));
+    }
+}
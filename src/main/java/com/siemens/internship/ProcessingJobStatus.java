@@ -0,0 +1,41 @@
+package com.siemens.internship;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * Snapshot of a processing job returned by the /api/items/process/jobs endpoints.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProcessingJobStatus {
+
+    private String jobId;
+
+    private ProcessingJob.State state;
+
+    private ProcessingMode mode;
+
+    private long processedCount;
+
+    private long failedCount;
+
+    private long skippedCount;
+
+    // -1 until the job has counted the items it is going to visit
+    private long remainingCount;
+
+    private double itemsPerSecond;
+
+    private Instant submittedAt;
+
+    private Instant finishedAt;
+
+    private String error;
+}
@@ -0,0 +1,44 @@
+package com.siemens.internship;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * One ID range of a LEASED processing run, shared by every instance using the database.
+ * An instance claims the range by taking a lease that expires, processes it, and marks it done in
+ * the same transaction. A range whose owner died becomes claimable again once the lease expires.
+ */
+@Entity
+@Table(indexes = @Index(name = "idx_lease_done", columnList = "done, id")) // claimable ranges, in range order
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProcessingLease {
+
+    // Position of the range in the run, from 0: instances starting a run at the same time collide on the first key
+    @Id
+    private Long id;
+
+    private long rangeFrom;
+
+    private long rangeTo;
+
+    // Only items whose status is not PROCESSED are processed
+    private boolean incremental;
+
+    // Instance holding the lease, null while the range is unclaimed
+    private String owner;
+
+    private Instant expiresAt;
+
+    private boolean done;
+}
@@ -0,0 +1,66 @@
+package com.siemens.internship;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface ProcessingLeaseRepository extends JpaRepository<ProcessingLease, Long> {
+
+    boolean existsByDoneFalse();
+
+    /**
+     * Whether a run is current: some range is unfinished, or the run finished so recently that a lease taken
+     * on one of its ranges has not expired yet. Completed ranges keep the expiry of their last lease.
+     * @param now current time
+     */
+    @Query("SELECT COUNT(l) > 0 FROM ProcessingLease l WHERE l.done = false OR l.expiresAt > :now")
+    boolean existsCurrent(Instant now);
+
+    /**
+     * Ranges nobody is working on: never claimed, or claimed by an owner whose lease has expired.
+     * @param now   current time
+     * @param limit maximum number of ranges to return
+     * @return List of ranges in range order
+     */
+    @Query("SELECT l FROM ProcessingLease l WHERE l.done = false AND (l.owner IS NULL OR l.expiresAt < :now) ORDER BY l.id")
+    List<ProcessingLease> findClaimable(Instant now, Limit limit);
+
+    /**
+     * Takes the lease on a range if it is still claimable. The condition is evaluated by the UPDATE itself,
+     * so of several instances claiming the same range exactly one succeeds.
+     * @return 1 if the lease was taken, 0 if another instance got it first or the range is done
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE ProcessingLease l SET l.owner = :owner, l.expiresAt = :expiresAt " +
+            "WHERE l.id = :id AND l.done = false AND (l.owner IS NULL OR l.expiresAt < :now)")
+    int claim(Long id, String owner, Instant now, Instant expiresAt);
+
+    /**
+     * Marks a range done, in the transaction that processed it, unless its lease has passed to another instance.
+     * @return 1 if the range was marked done, 0 if {@code owner} no longer holds the lease
+     */
+    @Modifying
+    @Query("UPDATE ProcessingLease l SET l.done = true WHERE l.id = :id AND l.owner = :owner")
+    int complete(Long id, String owner);
+
+    /**
+     * Gives up a lease without finishing the range, so any instance can claim it again right away.
+     * @return 1 if the lease was released, 0 if {@code owner} no longer holds it or the range is done
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE ProcessingLease l SET l.owner = null, l.expiresAt = null WHERE l.id = :id AND l.owner = :owner AND l.done = false")
+    int release(Long id, String owner);
+
+    @Modifying
+    @Query("DELETE FROM ProcessingLease l WHERE l.done = true")
+    int deleteDone();
+}
@@ -0,0 +1,147 @@
+package com.siemens.internship;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Shares LEASED processing runs between application instances through the processing_lease table.
+ * Leases carry wall-clock expiry times, so instance clocks are assumed to agree to well within
+ * items.processing.lease.duration-ms.
+ */
+@Service
+public class ProcessingLeaseService {
+
+    // Claimable ranges read per attempt and tried in random order, so instances do not all race for the first one
+    static final int CLAIM_CANDIDATES = 16;
+
+    @Autowired
+    private ProcessingLeaseRepository leaseRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    // Inserts the ranges of a new run as one JDBC batch
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final String owner;
+
+    // How long a claimed range stays reserved; an instance that dies loses its ranges after this long
+    @Value("${items.processing.lease.duration-ms:30000}")
+    private long leaseDurationMs;
+
+    // Pause before looking again while the remaining ranges are leased by other instances
+    @Value("${items.processing.lease.poll-ms:100}")
+    private long pollMs;
+
+    public ProcessingLeaseService(@Value("${items.processing.lease.owner:}") String owner) {
+        this.owner = owner.isBlank() ? UUID.randomUUID().toString() : owner;
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+
+    /**
+     * Joins the current run, or starts one by splitting the current ID space into ranges of
+     * {@code rangeSize} IDs. The options of the instance that started the run apply to every range.
+     * A run stays current for up to a lease duration after its last range was done, so an instance
+     * asked to join it a little later than the others finds it finished instead of starting it over.
+     */
+    public void joinOrStart(int rangeSize, boolean incremental) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (leaseRepository.existsCurrent(Instant.now())) {
+                    return;
+                }
+                leaseRepository.deleteDone();
+                Long minId = itemRepository.findMinId();
+                Long maxId = itemRepository.findMaxId();
+                if (minId == null) {
+                    return;
+                }
+                List<Object[]> ranges = new ArrayList<>();
+                for (long from = minId; from <= maxId; from += rangeSize) {
+                    long to = from > maxId - rangeSize ? maxId : from + rangeSize - 1;
+                    ranges.add(new Object[]{(long) ranges.size(), from, to, incremental});
+                }
+                jdbcTemplate.batchUpdate("INSERT INTO processing_lease (id, range_from, range_to, incremental, done) " +
+                        "VALUES (?, ?, ?, ?, false)", ranges);
+            });
+        } catch (DuplicateKeyException e) {
+            // Another instance started a run at the same time and inserted its ranges first; join that one
+        }
+    }
+
+    /**
+     * @return a range this instance now holds the lease on, or empty if every unfinished range is leased by another instance
+     */
+    public Optional<ProcessingLease> claim() {
+        List<ProcessingLease> candidates;
+        while (!(candidates = findClaimable()).isEmpty()) {
+            Collections.shuffle(candidates);
+            for (ProcessingLease lease : candidates) {
+                Instant now = Instant.now();
+                if (leaseRepository.claim(lease.getId(), owner, now, now.plusMillis(leaseDurationMs)) == 1) {
+                    return Optional.of(lease);
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Marks a claimed range done; must run in the transaction that processed it.
+     *
+     * @return false if the lease expired and another instance took the range over; the caller must then roll back
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public boolean complete(ProcessingLease lease) {
+        return leaseRepository.complete(lease.getId(), owner) == 1;
+    }
+
+    /**
+     * Hands a claimed range back after processing it failed, instead of leaving it blocked until the lease expires.
+     */
+    public void release(ProcessingLease lease) {
+        leaseRepository.release(lease.getId(), owner);
+    }
+
+    public boolean hasUnfinished() {
+        return leaseRepository.existsByDoneFalse();
+    }
+
+    /**
+     * Waits before the next claim attempt, while other instances hold the remaining ranges.
+     */
+    public void awaitOtherOwners() {
+        try {
+            Thread.sleep(pollMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CompletionException(e);
+        }
+    }
+
+    private List<ProcessingLease> findClaimable() {
+        return new ArrayList<>(leaseRepository.findClaimable(Instant.now(), Limit.of(CLAIM_CANDIDATES)));
+    }
+}
@@ -0,0 +1,86 @@
+package com.siemens.internship;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Meters for the processing pipeline.
+ * All meters are registered once here; recording is a lock-free increment, so the hot path never
+ * looks anything up in the registry.
+ */
+@Component
+public class ProcessingMetrics {
+
+    private final Counter processed;
+    private final Counter failed;
+    private final Timer itemLatency;
+    private final Timer chunkLatency;
+    private final Counter executorRejections;
+    private final Map<ItemProcessingPipeline.Stage, Counter> stageItems = new EnumMap<>(ItemProcessingPipeline.Stage.class);
+    private final Map<ItemProcessingPipeline.Stage, AtomicLong> stageBacklog = new EnumMap<>(ItemProcessingPipeline.Stage.class);
+
+    public ProcessingMetrics(MeterRegistry registry) {
+        processed = Counter.builder("items.processing.processed")
+                .description("Items successfully processed")
+                .register(registry);
+        failed = Counter.builder("items.processing.failed")
+                .description("Items whose processing failed")
+                .register(registry);
+        itemLatency = Timer.builder("items.processing.item")
+                .description("Time the process stage spends on one item in PER_ITEM mode")
+                .register(registry);
+        chunkLatency = Timer.builder("items.processing.chunk")
+                .description("Time to read and write one chunk in CHUNKED mode, or to write one batch in PER_ITEM mode")
+                .register(registry);
+        executorRejections = Counter.builder("items.processing.executor.rejected")
+                .description("Tasks the processing executor could not queue and ran on the submitting thread")
+                .register(registry);
+        for (ItemProcessingPipeline.Stage stage : ItemProcessingPipeline.Stage.values()) {
+            String tag = stage.name().toLowerCase();
+            stageItems.put(stage, Counter.builder("items.processing.pipeline.items")
+                    .description("Items that passed a pipeline stage; its rate is the stage throughput")
+                    .tag("stage", tag)
+                    .register(registry));
+            AtomicLong backlog = new AtomicLong();
+            stageBacklog.put(stage, backlog);
+            Gauge.builder("items.processing.pipeline.backlog", backlog, AtomicLong::get)
+                    .description("Items queued in front of a pipeline stage, across running pipelines")
+                    .tag("stage", tag)
+                    .register(registry);
+        }
+    }
+
+    // Latency only: PER_ITEM items are counted as processed once their batch has been written
+    public void recordItem(long startNanos) {
+        itemLatency.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordChunk(long startNanos, int size) {
+        chunkLatency.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        processed.increment(size);
+    }
+
+    public void recordFailure() {
+        failed.increment();
+    }
+
+    public void recordStage(ItemProcessingPipeline.Stage stage, int count) {
+        stageItems.get(stage).increment(count);
+    }
+
+    public AtomicLong backlog(ItemProcessingPipeline.Stage stage) {
+        return stageBacklog.get(stage);
+    }
+
+    public void recordRejection() {
+        executorRejections.increment();
+    }
+}
@@ -0,0 +1,26 @@
+package com.siemens.internship;
+
+/**
+ * How a processing run touches the items table.
+ */
+public enum ProcessingMode {
+
+    /**
+     * Items pass one by one through the {@link ItemProcessor} in the staged pipeline of
+     * {@link ItemProcessingPipeline}: ID ranges are read, items processed in parallel, and the results
+     * written in batches of the chunk size, one transaction per batch.
+     */
+    PER_ITEM,
+
+    /**
+     * Items are read in keyset chunks and each chunk is updated in a single transaction,
+     * so Hibernate flushes it as one JDBC batch.
+     */
+    CHUNKED,
+
+    /**
+     * Like CHUNKED, but the ID ranges are claimed from a lease table shared by every instance using the
+     * database, so several instances split one run between them (see {@link ProcessingLease}).
+     */
+    LEASED
+}
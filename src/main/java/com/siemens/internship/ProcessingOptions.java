@@ -0,0 +1,28 @@
+package com.siemens.internship;
+
+import lombok.Value;
+
+/**
+ * What a processing run should do, as requested through the /process endpoints.
+ */
+@Value
+public class ProcessingOptions {
+
+    ProcessingMode mode;
+
+    // Items per transaction: chunks in CHUNKED mode, write batches of the PER_ITEM pipeline,
+    // IDs per leased range in LEASED mode
+    int chunkSize;
+
+    // Only visit items whose status is not PROCESSED yet; the rest are counted as skipped
+    boolean incremental;
+
+    public ProcessingOptions(ProcessingMode mode, int chunkSize, boolean incremental) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunkSize must be positive");
+        }
+        this.mode = mode;
+        this.chunkSize = chunkSize;
+        this.incremental = incremental;
+    }
+}
@@ -0,0 +1,141 @@
+package com.siemens.internship;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Accumulator for a single processing run.
+ * A new instance is created per invocation, so results never leak between runs and the
+ * garbage collector reclaims them once the caller is done. Worker threads record into
+ * lock-free structures (LongAdder counters, ConcurrentLinkedQueue) instead of a
+ * synchronized list, so they do not contend on a shared monitor.
+ */
+public class ProcessingRun {
+
+    // Failed IDs kept for the summary; the failed count stays exact beyond this bound
+    static final int MAX_FAILED_IDS = 1000;
+
+    private final boolean collectItems;
+    private final long startNanos = System.nanoTime();
+    private final Queue<Item> items = new ConcurrentLinkedQueue<>();
+    private final Queue<Long> failedIds = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger failedIdsKept = new AtomicInteger();
+    private final LongAdder processed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private volatile long skippedCount;
+    private volatile long totalCount = -1;
+    private volatile boolean cancelled;
+
+    /**
+     * @param collectItems whether processed entities are retained for the response;
+     *                     summary-only runs pass false and keep nothing but counters
+     */
+    public ProcessingRun(boolean collectItems) {
+        this.collectItems = collectItems;
+    }
+
+    public void recordProcessed(Item item) {
+        processed.increment();
+        if (collectItems) {
+            items.add(item);
+        }
+    }
+
+    public void recordProcessed(List<Item> chunk) {
+        processed.add(chunk.size());
+        if (collectItems) {
+            items.addAll(chunk);
+        }
+    }
+
+    /**
+     * Carries over the counts of an interrupted earlier attempt, so a resumed run reports the whole run.
+     */
+    public void recordResumed(long processedCount, long failedCount) {
+        processed.add(processedCount);
+        failed.add(failedCount);
+    }
+
+    public void recordFailed(Long id) {
+        failed.increment();
+        if (failedIdsKept.getAndIncrement() < MAX_FAILED_IDS) {
+            failedIds.add(id);
+        }
+    }
+
+    /**
+     * Asks the run to stop; workers check the flag between items or chunks.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * @param totalCount number of items the run expects to visit, known once it has started
+     */
+    public void setTotalCount(long totalCount) {
+        this.totalCount = totalCount;
+    }
+
+    /**
+     * @return expected number of items, or -1 while the run has not determined it yet
+     */
+    public long getTotalCount() {
+        return totalCount;
+    }
+
+    /**
+     * @return items not yet processed or failed, or -1 while the total is unknown
+     */
+    public long getRemainingCount() {
+        long total = totalCount;
+        return total < 0 ? -1 : Math.max(0, total - getProcessedCount() - getFailedCount());
+    }
+
+    /**
+     * @return processed items per second since the run started
+     */
+    public double getItemsPerSecond() {
+        double seconds = (System.nanoTime() - startNanos) / 1e9;
+        return seconds > 0 ? getProcessedCount() / seconds : 0;
+    }
+
+    /**
+     * @param skippedCount items an incremental run left alone because they were already processed
+     */
+    public void setSkippedCount(long skippedCount) {
+        this.skippedCount = skippedCount;
+    }
+
+    public long getSkippedCount() {
+        return skippedCount;
+    }
+
+    public long getProcessedCount() {
+        return processed.sum();
+    }
+
+    public long getFailedCount() {
+        return failed.sum();
+    }
+
+    /**
+     * @return snapshot of the processed items (empty for summary-only runs)
+     */
+    public List<Item> getItems() {
+        return new ArrayList<>(items);
+    }
+
+    public ProcessingSummary toSummary() {
+        long durationMillis = (System.nanoTime() - startNanos) / 1_000_000;
+        return new ProcessingSummary(getProcessedCount(), getFailedCount(), getSkippedCount(), new ArrayList<>(failedIds), durationMillis);
+    }
+}
@@ -0,0 +1,31 @@
+package com.siemens.internship;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * Result of a processing run without the processed entities.
+ * Returned by GET /api/items/process?summary=true so large runs do not hold every item on the heap.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProcessingSummary {
+
+    private long processedCount;
+
+    private long failedCount;
+
+    // Items an incremental run did not visit because they were already processed
+    private long skippedCount;
+
+    // At most ProcessingRun.MAX_FAILED_IDS entries; failedCount is always exact
+    private List<Long> failedIds;
+
+    private long durationMillis;
+}
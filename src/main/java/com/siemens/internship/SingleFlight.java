@@ -0,0 +1,42 @@
+package com.siemens.internship;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent calls with the same key: the first caller runs the call, callers arriving while it
+ * is in flight get the same future instead of running it again. The key is forgotten once the call
+ * completes, so a later caller starts a new one. Bookkeeping is one ConcurrentHashMap entry per key in
+ * flight, so callers for different keys do not contend.
+ *
+ * @param <K> key identifying identical calls, with value-based equals and hashCode
+ * @param <V> result type
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * @param key  identifies the call
+     * @param call run on the calling thread unless a call with the same key is in flight
+     * @return the future of the call in flight for the key, or of this call, completed exceptionally if it threw
+     */
+    public CompletableFuture<V> execute(K key, Supplier<V> call) {
+        CompletableFuture<V> own = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, own);
+        if (existing != null) {
+            return existing;
+        }
+        try {
+            own.complete(call.get());
+        } catch (Throwable e) {
+            // Completed either way, or callers that attached would wait forever
+            own.completeExceptionally(e);
+        } finally {
+            inFlight.remove(key, own);
+        }
+        return own;
+    }
+}
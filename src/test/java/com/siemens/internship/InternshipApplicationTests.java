@@ -1,18 +1,91 @@
 package com.siemens.internship;
 
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
 import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.web.context.WebServerGracefulShutdownLifecycle;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.http.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.net.Socket;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
-@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "items.transfer.directory=target/transfer")
+@AutoConfigureObservability(tracing = false)
 class InternshipApplicationTests {
 	@Autowired
 	private TestRestTemplate restTemplate;
 
+	@Autowired
+	private CacheManager cacheManager;
+
+	@Autowired
+	private ItemService itemService;
+
+	@Autowired
+	private ItemChangeFeed itemChangeFeed;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Autowired
+	private ProcessingCheckpointRepository checkpointRepository;
+
+	@Autowired
+	private AdaptiveConcurrencyLimit batchConcurrencyLimit;
+
+	@Autowired
+	private ItemStatusCounters itemStatusCounters;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private ItemProcessingPipeline itemProcessingPipeline;
+
+	@Autowired
+	private ItemWriteBuffer itemWriteBuffer;
+
 	@Test
 	void contextLoads() {
 	}
@@ -214,6 +287,136 @@ class InternshipApplicationTests {
 		assertThat(delete.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
 	}
 
+	@Test
+	void getItemById_withMatchingIfNoneMatch_returnsNotModified() {
+		ResponseEntity<Item> created = restTemplate.postForEntity("/api/items", new Item(null, "Tagged", "Desc", "NEW", "tag@test.com"), Item.class);
+		String eTag = created.getHeaders().getETag();
+		assertThat(eTag).isNotNull();
+
+		HttpHeaders headers = new HttpHeaders();
+		headers.setIfNoneMatch(eTag);
+		ResponseEntity<Item> response = restTemplate.exchange("/api/items/" + created.getBody().getId(), HttpMethod.GET, new HttpEntity<>(headers), Item.class);
+
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+		assertThat(response.getBody()).isNull();
+	}
+
+	@Test
+	void updateItem_withStaleIfMatch_returnsPreconditionFailed() {
+		ResponseEntity<Item> created = restTemplate.postForEntity("/api/items", new Item(null, "Versioned", "Desc", "NEW", "ver@test.com"), Item.class);
+		Long id = created.getBody().getId();
+		HttpHeaders headers = new HttpHeaders();
+		headers.setIfMatch(created.getHeaders().getETag());
+
+		ResponseEntity<Item> first = restTemplate.exchange("/api/items/" + id, HttpMethod.PUT, new HttpEntity<>(new Item(null, "First", "Desc", "NEW", "ver@test.com"), headers), Item.class);
+		ResponseEntity<Item> second = restTemplate.exchange("/api/items/" + id, HttpMethod.PUT, new HttpEntity<>(new Item(null, "Second", "Desc", "NEW", "ver@test.com"), headers), Item.class);
+		ResponseEntity<Void> staleDelete = restTemplate.exchange("/api/items/" + id, HttpMethod.DELETE, new HttpEntity<>(headers), Void.class);
+
+		assertThat(first.getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(first.getHeaders().getETag()).isNotEqualTo(created.getHeaders().getETag());
+		assertThat(second.getStatusCode()).isEqualTo(HttpStatus.PRECONDITION_FAILED);
+		assertThat(staleDelete.getStatusCode()).isEqualTo(HttpStatus.PRECONDITION_FAILED);
+		ResponseEntity<Item> current = restTemplate.getForEntity("/api/items/" + id, Item.class);
+		assertThat(current.getBody().getName()).isEqualTo("First");
+		assertThat(current.getHeaders().getETag()).isEqualTo(first.getHeaders().getETag());
+	}
+
+	@Test
+	void writeBehindBuffer_concurrentCreates_areGroupCommitted() throws Exception {
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		ItemWriteBuffer buffer = new ItemWriteBuffer(itemService, registry, true, 50, 200, 100, 1000);
+		buffer.start();
+		List<CompletableFuture<Item>> futures = new ArrayList<>();
+		try {
+			for (int i = 0; i < 20; i++) {
+				futures.add(buffer.submit(new Item(null, "Buffered" + i, "Desc", "NEW", "buffered" + i + "@test.com")));
+			}
+			for (CompletableFuture<Item> future : futures) {
+				Item saved = future.get(5, TimeUnit.SECONDS);
+				assertThat(saved.getId()).isNotNull();
+				assertThat(restTemplate.getForEntity("/api/items/" + saved.getId(), Item.class).getStatusCode()).isEqualTo(HttpStatus.OK);
+			}
+		} finally {
+			buffer.stop();
+		}
+
+		DistributionSummary batches = registry.get("items.write-behind.batch.size").summary();
+		assertThat(batches.totalAmount()).isEqualTo(20);
+		assertThat(batches.count()).isLessThan(20);
+	}
+
+	@Test
+	@ExtendWith(OutputCaptureExtension.class)
+	void createItem_writeBehind_ignoresClientIdAndVersion(CapturedOutput output) {
+		Item existing = restTemplate.postForEntity("/api/items", new Item(null, "Kept", "Desc", "NEW", "kept@test.com"), Item.class).getBody();
+		ReflectionTestUtils.setField(itemWriteBuffer, "enabled", true);
+		itemWriteBuffer.start();
+		try {
+			Item posted = new Item(existing.getId(), "Buffered", "Desc", "NEW", "buffered@test.com", 7L);
+			ResponseEntity<Item> created = restTemplate.postForEntity("/api/items", posted, Item.class);
+
+			assertThat(created.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+			assertThat(created.getBody().getId()).isNotEqualTo(existing.getId());
+			assertThat(restTemplate.getForEntity("/api/items/" + existing.getId(), Item.class).getBody().getName()).isEqualTo("Kept");
+			assertThat(output).doesNotContain("Write-behind batch"); // not inserted through the one-by-one fallback
+		} finally {
+			itemWriteBuffer.stop();
+			ReflectionTestUtils.setField(itemWriteBuffer, "enabled", false);
+		}
+	}
+
+	@Test
+	void writeBehindBuffer_stopsAfterTheWebServer() {
+		assertThat(itemWriteBuffer.getPhase()).isLessThan(WebServerGracefulShutdownLifecycle.SMART_LIFECYCLE_PHASE - 1024);
+	}
+
+	@Test
+	@Timeout(10)
+	void changeFeed_replaysFromSequenceAndStreamsLiveEvents() throws Exception {
+		long since = itemChangeFeed.getLastSequence();
+		Item created = restTemplate.postForEntity("/api/items", new Item(null, "Feed", "Desc", "NEW", "feed@test.com"), Item.class).getBody();
+
+		HttpRequest request = HttpRequest.newBuilder(URI.create(restTemplate.getRootUri() + "/api/items/changes"))
+				.header("Last-Event-ID", Long.toString(since))
+				.build();
+		HttpResponse<Stream<String>> response = HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.ofLines());
+		try (Stream<String> lines = response.body()) {
+			Iterator<String> events = lines.filter(line -> line.startsWith("event:")).iterator();
+			assertThat(events.next()).isEqualTo("event:CREATED"); // replayed
+
+			restTemplate.delete("/api/items/" + created.getId());
+			assertThat(events.next()).isEqualTo("event:DELETED"); // live
+		}
+	}
+
+	@Test
+	@Timeout(10)
+	@ExtendWith(OutputCaptureExtension.class)
+	void changeFeed_clientDisconnects_subscriberIsRemovedWithoutErrors(CapturedOutput output) throws Exception {
+		int subscribers = itemChangeFeed.getSubscriberCount();
+		URI changes = URI.create(restTemplate.getRootUri() + "/api/items/changes");
+		try (Socket socket = new Socket(changes.getHost(), changes.getPort())) {
+			socket.getOutputStream().write(("GET /api/items/changes HTTP/1.1\r\nHost: localhost\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+			socket.getOutputStream().flush();
+			socket.setSoTimeout(5000);
+			while (itemChangeFeed.getSubscriberCount() == subscribers) {
+				Thread.sleep(10);
+			}
+			itemChangeFeed.publish(ItemChangeType.UPDATED, -1L, "GONE"); // headers go out with the first event
+			assertThat(new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII)).readLine())
+					.startsWith("HTTP/1.1 200");
+		}
+
+		while (itemChangeFeed.getSubscriberCount() > subscribers) {
+			itemChangeFeed.publish(ItemChangeType.UPDATED, -1L, "GONE");
+			Thread.sleep(50);
+		}
+		itemChangeFeed.publish(ItemChangeType.UPDATED, -1L, "GONE");
+		Thread.sleep(500); // let any error dispatch for the closed connection run
+
+		assertThat(output).doesNotContain("IOException").doesNotContain("threw exception");
+	}
+
 	@Test
 	void processItems_whenItemsExist_allAreProcessed() {
 		Item item1 = new Item(null, "Batch1", "Pending", "INIT", "batch1@test.com");
@@ -311,4 +514,773 @@ class InternshipApplicationTests {
 	    ResponseEntity<Item> updated1 = restTemplate.getForEntity("/api/items/" + r1.getBody().getId(), Item.class);
 	    assertThat(updated1.getBody().getStatus()).isEqualTo("PROCESSED");
 	}
-}
\ No newline at end of file
+
+	@Test
+	void processItems_chunkedMode_updatesAllItems() {
+		ResponseEntity<Item> r1 = restTemplate.postForEntity("/api/items", new Item(null, "Chunk1", "Desc", "INIT", "c1@c.com"), Item.class);
+		ResponseEntity<Item> r2 = restTemplate.postForEntity("/api/items", new Item(null, "Chunk2", "Desc", "INIT", "c2@c.com"), Item.class);
+		ResponseEntity<Item> r3 = restTemplate.postForEntity("/api/items", new Item(null, "Chunk3", "Desc", "INIT", "c3@c.com"), Item.class);
+
+		ResponseEntity<Item[]> response = restTemplate.getForEntity("/api/items/process?mode=CHUNKED&chunkSize=2", Item[].class);
+
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(response.getBody()).isNotNull();
+		assertThat(response.getBody()).extracting(Item::getId)
+				.contains(r1.getBody().getId(), r2.getBody().getId(), r3.getBody().getId());
+		for (Item item : response.getBody()) {
+			assertThat(item.getStatus()).isEqualTo("PROCESSED");
+		}
+
+		ResponseEntity<Item> stored = restTemplate.getForEntity("/api/items/" + r3.getBody().getId(), Item.class);
+		assertThat(stored.getBody().getStatus()).isEqualTo("PROCESSED");
+	}
+
+	@Test
+	void processItems_chunkedModeWithInvalidChunkSize_returnsBadRequest() {
+		ResponseEntity<String> response = restTemplate.getForEntity("/api/items/process?mode=CHUNKED&chunkSize=0", String.class);
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+	}
+
+	@Test
+	void processItems_repeatedRuns_doNotAccumulateResults() {
+		restTemplate.postForEntity("/api/items", new Item(null, "Repeat", "Desc", "INIT", "repeat@test.com"), Item.class);
+
+		ResponseEntity<Item[]> first = restTemplate.getForEntity("/api/items/process", Item[].class);
+		ResponseEntity<Item[]> second = restTemplate.getForEntity("/api/items/process", Item[].class);
+		ResponseEntity<Item[]> all = restTemplate.getForEntity("/api/items", Item[].class);
+
+		assertThat(first.getBody()).hasSameSizeAs(all.getBody());
+		assertThat(second.getBody()).hasSameSizeAs(all.getBody());
+	}
+
+	@Test
+	void processItems_summaryOnly_returnsCountsWithoutItems() {
+		restTemplate.postForEntity("/api/items", new Item(null, "Summary", "Desc", "INIT", "summary@test.com"), Item.class);
+		ResponseEntity<Item[]> all = restTemplate.getForEntity("/api/items", Item[].class);
+
+		ResponseEntity<ProcessingSummary> response = restTemplate.getForEntity("/api/items/process?summary=true&mode=CHUNKED", ProcessingSummary.class);
+
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(response.getBody()).isNotNull();
+		assertThat(response.getBody().getProcessedCount()).isEqualTo(all.getBody().length);
+		assertThat(response.getBody().getFailedCount()).isZero();
+		assertThat(response.getBody().getFailedIds()).isEmpty();
+	}
+
+	@Test
+	void processItems_incremental_skipsAlreadyProcessedItems() {
+		restTemplate.getForEntity("/api/items/process?summary=true&mode=CHUNKED", ProcessingSummary.class);
+		// statuses sorting before and after PROCESSED, so both index ranges are exercised
+		Item before = restTemplate.postForEntity("/api/items", new Item(null, "Before", "Desc", "NEW", "before@test.com"), Item.class).getBody();
+		Item after = restTemplate.postForEntity("/api/items", new Item(null, "After", "Desc", "RETRY", "after@test.com"), Item.class).getBody();
+		int total = restTemplate.getForEntity("/api/items", Item[].class).getBody().length;
+
+		ResponseEntity<ProcessingSummary> chunked = restTemplate.getForEntity("/api/items/process?summary=true&mode=CHUNKED&chunkSize=1&incremental=true", ProcessingSummary.class);
+
+		assertThat(chunked.getBody().getProcessedCount()).isEqualTo(2);
+		assertThat(chunked.getBody().getSkippedCount()).isEqualTo(total - 2);
+		assertThat(restTemplate.getForEntity("/api/items/" + after.getId(), Item.class).getBody().getStatus()).isEqualTo("PROCESSED");
+
+		before.setStatus("NEW");
+		restTemplate.put("/api/items/" + before.getId(), before);
+		ResponseEntity<Item[]> perItem = restTemplate.getForEntity("/api/items/process?incremental=true", Item[].class);
+
+		assertThat(perItem.getBody()).extracting(Item::getId).containsExactly(before.getId());
+	}
+
+	@Test
+	void processItems_perItemWithGapsInIds_processesEveryRemainingItem() {
+		List<Long> ids = new ArrayList<>();
+		for (int i = 0; i < 6; i++) {
+			ids.add(restTemplate.postForEntity("/api/items", new Item(null, "Gap" + i, "Desc", "NEW", "gap" + i + "@test.com"), Item.class).getBody().getId());
+		}
+		restTemplate.exchange("/api/items/bulk", HttpMethod.DELETE, new HttpEntity<>(List.of(ids.get(1), ids.get(2), ids.get(4))), String.class);
+		int total = restTemplate.getForEntity("/api/items", Item[].class).getBody().length;
+
+		ResponseEntity<ProcessingSummary> response = restTemplate.getForEntity("/api/items/process?summary=true", ProcessingSummary.class);
+
+		assertThat(response.getBody().getProcessedCount()).isEqualTo(total);
+		assertThat(response.getBody().getFailedCount()).isZero();
+	}
+
+	@Test
+	void processItems_perItemPipeline_reportsEveryStage() {
+		restTemplate.postForEntity("/api/items", new Item(null, "Staged", "Desc", "NEW", "staged@test.com"), Item.class);
+		double read = meterRegistry.get("items.processing.pipeline.items").tag("stage", "read").counter().count();
+		double written = meterRegistry.get("items.processing.pipeline.items").tag("stage", "write").counter().count();
+
+		ProcessingSummary summary = restTemplate.getForEntity("/api/items/process?summary=true&chunkSize=2", ProcessingSummary.class).getBody();
+
+		assertThat(summary.getProcessedCount()).isPositive();
+		assertThat(meterRegistry.get("items.processing.pipeline.items").tag("stage", "read").counter().count() - read)
+				.isEqualTo(summary.getProcessedCount());
+		assertThat(meterRegistry.get("items.processing.pipeline.items").tag("stage", "write").counter().count() - written)
+				.isEqualTo(summary.getProcessedCount());
+		assertThat(meterRegistry.get("items.processing.pipeline.backlog").tag("stage", "process").gauge().value()).isZero();
+		assertThat(meterRegistry.get("items.processing.pipeline.backlog").tag("stage", "write").gauge().value()).isZero();
+	}
+
+	@Test
+	void processChunked_interruptedRun_resumesAfterCheckpoint() throws Exception {
+		List<Long> ids = new ArrayList<>();
+		for (int i = 0; i < 3; i++) {
+			ids.add(restTemplate.postForEntity("/api/items", new Item(null, "Resume" + i, "Desc", "NEW", "resume" + i + "@test.com"), Item.class).getBody().getId());
+		}
+		// Left behind by a run that committed everything up to the second item before the JVM stopped
+		checkpointRepository.save(new ProcessingCheckpoint("CHUNKED", ids.get(1), ids.get(1), 7, 1, null));
+
+		ProcessingRun run = itemService.processAsync(new ProcessingOptions(ProcessingMode.CHUNKED, 500, false), false).get(10, TimeUnit.SECONDS);
+
+		assertThat(run.getProcessedCount()).isEqualTo(8);
+		assertThat(run.getFailedCount()).isEqualTo(1);
+		assertThat(itemService.findById(ids.get(1)).orElseThrow().getStatus()).isEqualTo("NEW");
+		assertThat(itemService.findById(ids.get(2)).orElseThrow().getStatus()).isEqualTo("PROCESSED");
+		assertThat(checkpointRepository.findById("CHUNKED")).isEmpty();
+	}
+
+	@Test
+	void processPerItem_interruptedRun_doesNotRedoWrittenItems() throws Exception {
+		List<Item> items = new ArrayList<>();
+		for (int i = 0; i < 4; i++) {
+			items.add(restTemplate.postForEntity("/api/items", new Item(null, "Resume" + i, "Desc", "NEW", "resumeitem" + i + "@test.com"), Item.class).getBody());
+		}
+		// The interrupted run had finished the first item and already written the second one, out of order
+		Item written = items.get(1);
+		Item alreadyProcessed = itemService.update(written.getId(), new Item(null, written.getName(), written.getDescription(), "PROCESSED", written.getEmail()), null).orElseThrow();
+		checkpointRepository.save(new ProcessingCheckpoint("PER_ITEM", items.get(0).getId(), items.get(1).getId(), 2, 0, null));
+
+		ProcessingRun run = itemService.processAsync(new ProcessingOptions(ProcessingMode.PER_ITEM, 500, false), false).get(10, TimeUnit.SECONDS);
+
+		assertThat(run.getProcessedCount()).isEqualTo(4);
+		assertThat(itemService.findById(items.get(0).getId()).orElseThrow().getStatus()).isEqualTo("NEW");
+		assertThat(itemService.findById(written.getId()).orElseThrow().getVersion()).isEqualTo(alreadyProcessed.getVersion());
+		assertThat(itemService.findById(items.get(2).getId()).orElseThrow().getStatus()).isEqualTo("PROCESSED");
+		assertThat(itemService.findById(items.get(3).getId()).orElseThrow().getStatus()).isEqualTo("PROCESSED");
+		assertThat(checkpointRepository.findById("PER_ITEM")).isEmpty();
+	}
+
+	@Test
+	void findById_concurrentMisses_shareOneQuery() throws Exception {
+		Long id = restTemplate.postForEntity("/api/items", new Item(null, "Hot", "Desc", "NEW", "hot@test.com"), Item.class).getBody().getId();
+		cacheManager.getCache(ItemService.ITEM_CACHE).evict(id);
+		long queries = repositoryFindByIdCount();
+		CountDownLatch start = new CountDownLatch(1);
+		List<CompletableFuture<Optional<Item>>> lookups = new ArrayList<>();
+		for (int i = 0; i < 8; i++) {
+			lookups.add(CompletableFuture.supplyAsync(() -> {
+				try {
+					start.await();
+				} catch (InterruptedException e) {
+					throw new IllegalStateException(e);
+				}
+				return itemService.findById(id);
+			}));
+		}
+
+		start.countDown();
+
+		for (CompletableFuture<Optional<Item>> lookup : lookups) {
+			assertThat(lookup.get(10, TimeUnit.SECONDS)).isPresent();
+		}
+		assertThat(repositoryFindByIdCount() - queries).isEqualTo(1);
+	}
+
+	@Test
+	void processAsync_identicalConcurrentCalls_attachToOneRun() throws Exception {
+		restTemplate.postForEntity("/api/items", new Item(null, "Coalesced", "Desc", "NEW", "coalesced@test.com"), Item.class);
+		ProcessingOptions options = new ProcessingOptions(ProcessingMode.PER_ITEM, 500, false);
+
+		CompletableFuture<ProcessingRun> first = itemService.processAsync(options, false);
+		CompletableFuture<ProcessingRun> second = itemService.processAsync(options, false);
+
+		assertThat(first.get(60, TimeUnit.SECONDS)).isSameAs(second.get(60, TimeUnit.SECONDS));
+		assertThat(itemService.processAsync(options, false).get(60, TimeUnit.SECONDS)).isNotSameAs(first.get());
+	}
+
+	@Test
+	void processAsync_concurrentPerItemRuns_bothComplete() throws Exception {
+		for (int i = 0; i < 20; i++) {
+			restTemplate.postForEntity("/api/items", new Item(null, "Concurrent" + i, "Desc", "NEW", "concurrent" + i + "@test.com"), Item.class);
+		}
+
+		CompletableFuture<ProcessingRun> first = itemService.processAsync(new ProcessingOptions(ProcessingMode.PER_ITEM, 500, false), false);
+		CompletableFuture<ProcessingRun> second = itemService.processAsync(new ProcessingOptions(ProcessingMode.PER_ITEM, 5, false), false);
+
+		assertThat(first.get(60, TimeUnit.SECONDS).getProcessedCount() + first.get().getFailedCount()).isPositive();
+		assertThat(second.get(60, TimeUnit.SECONDS).getProcessedCount() + second.get().getFailedCount()).isPositive();
+	}
+
+	@Test
+	void processPerItem_writesFullBatches() {
+		List<Item> items = new ArrayList<>();
+		for (int i = 0; i < 40; i++) {
+			items.add(new Item(null, "Batched" + i, "Desc", "NEW", "batched" + i + "@test.com"));
+		}
+		List<Long> ids = itemService.createAll(items).stream().map(Item::getId).toList();
+		try {
+			Timer batches = meterRegistry.get("items.processing.chunk").timer();
+			long before = batches.count();
+			ProcessingRun run = new ProcessingRun(false);
+
+			itemProcessingPipeline.run(run, false, 10, null);
+
+			// The writer outpaces the processors, so it must wait for batches to fill instead of writing each item
+			assertThat(run.getProcessedCount()).isGreaterThanOrEqualTo(40);
+			assertThat(run.getProcessedCount()).isGreaterThanOrEqualTo(5 * (batches.count() - before));
+		} finally {
+			itemService.deleteAllById(ids);
+		}
+	}
+
+	@Test
+	void processPerItem_writerFails_laterRunsStillComplete() throws Exception {
+		List<Item> items = new ArrayList<>();
+		for (int i = 0; i < 30; i++) {
+			items.add(new Item(null, "Stranded" + i, "Desc", "NEW", "stranded" + i + "@test.com"));
+		}
+		List<Long> ids = itemService.createAll(items).stream().map(Item::getId).toList();
+		// Queues this small fill up behind a failed writer, which used to leave the stages blocked on them
+		ReflectionTestUtils.setField(itemProcessingPipeline, "queueCapacity", 2);
+		try {
+			ProcessingRun failing = new ProcessingRun(false) {
+				@Override
+				public void recordProcessed(List<Item> chunk) {
+					throw new IllegalStateException("writer failed");
+				}
+			};
+			assertThatThrownBy(() -> itemProcessingPipeline.run(failing, false, 5, null))
+					.hasMessage("writer failed");
+
+			CompletableFuture<ProcessingRun> next = itemService.processAsync(new ProcessingOptions(ProcessingMode.PER_ITEM, 5, false), false);
+			assertThat(next.get(30, TimeUnit.SECONDS).getFailedCount()).isZero();
+		} finally {
+			ReflectionTestUtils.setField(itemProcessingPipeline, "queueCapacity", 1000);
+			itemService.deleteAllById(ids);
+		}
+	}
+
+	@Test
+	void processChunked_concurrentUpdates_doNotFailTheRun() throws Exception {
+		assertRunSurvivesConcurrentUpdates(ProcessingMode.CHUNKED);
+	}
+
+	@Test
+	void processPerItem_concurrentUpdates_failOnlyTheEditedItems() throws Exception {
+		List<Item> items = new ArrayList<>();
+		for (int i = 0; i < 200; i++) {
+			items.add(new Item(null, "Contended" + i, "Desc", "NEW", "contended" + i + "@test.com"));
+		}
+		List<Long> ids = itemService.createAll(items).stream().map(Item::getId).toList();
+		Set<Long> edited = ConcurrentHashMap.newKeySet();
+		try {
+			CompletableFuture<ProcessingRun> run = itemService.processAsync(new ProcessingOptions(ProcessingMode.PER_ITEM, 50, false), false);
+			CompletableFuture<Void> editor = CompletableFuture.runAsync(() -> {
+				for (int i = 0; !run.isDone(); i = (i + 2) % ids.size()) {
+					itemService.update(ids.get(i), new Item(null, "Edited", "Desc", "NEW", "edited@test.com"), null);
+					edited.add(ids.get(i));
+				}
+			});
+			ProcessingSummary summary = run.get(60, TimeUnit.SECONDS).toSummary();
+			editor.get(60, TimeUnit.SECONDS);
+			// Only a concurrent edit may make an item fail, never a neighbour in the same write batch
+			assertThat(edited).containsAll(summary.getFailedIds().stream().filter(ids::contains).toList());
+		} finally {
+			itemService.deleteAllById(ids);
+		}
+	}
+
+	@Test
+	void processLeased_concurrentUpdates_doNotFailTheRun() throws Exception {
+		assertRunSurvivesConcurrentUpdates(ProcessingMode.LEASED);
+	}
+
+	@Test
+	void statusCounts_followWritesAndProcessing() throws Exception {
+		Long first = restTemplate.postForEntity("/api/items", new Item(null, "Stats1", "Desc", "STATS_NEW", "stats1@test.com"), Item.class).getBody().getId();
+		restTemplate.postForEntity("/api/items", new Item(null, "Stats2", "Desc", "STATS_NEW", "stats2@test.com"), Item.class);
+		Long third = restTemplate.postForEntity("/api/items", new Item(null, "Stats3", "Desc", "STATS_OTHER", "stats3@test.com"), Item.class).getBody().getId();
+
+		ResponseEntity<Map<String, Long>> stats = restTemplate.exchange("/api/items/stats", HttpMethod.GET, null, new ParameterizedTypeReference<>() {});
+		assertThat(stats.getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(stats.getBody()).containsEntry("STATS_NEW", 2L).containsEntry("STATS_OTHER", 1L);
+
+		restTemplate.exchange("/api/items/" + first, HttpMethod.PUT, new HttpEntity<>(new Item(null, "Stats1", "Desc", "STATS_OTHER", "stats1@test.com")), Item.class);
+		restTemplate.exchange("/api/items/" + third, HttpMethod.DELETE, null, Void.class);
+		assertThat(itemStatusCounters.snapshot()).containsEntry("STATS_NEW", 1L).containsEntry("STATS_OTHER", 1L);
+
+		itemService.processAsync(new ProcessingOptions(ProcessingMode.CHUNKED, 500, true), false).get(60, TimeUnit.SECONDS);
+		assertThat(itemStatusCounters.snapshot()).doesNotContainKeys("STATS_NEW", "STATS_OTHER");
+	}
+
+	@Test
+	@Timeout(10)
+	void save_unknownId_isCountedAndPublishedAsCreate() throws Exception {
+		long since = itemChangeFeed.getLastSequence();
+		Item saved = itemService.save(new Item(Long.MAX_VALUE - 1, "Unknown", "Desc", "STATS_UNKNOWN_ID", "unknown@test.com"));
+		try {
+			assertThat(saved.getId()).isNotEqualTo(Long.MAX_VALUE - 1);
+			assertThat(itemStatusCounters.snapshot()).containsEntry("STATS_UNKNOWN_ID", 1L);
+
+			HttpRequest request = HttpRequest.newBuilder(URI.create(restTemplate.getRootUri() + "/api/items/changes"))
+					.header("Last-Event-ID", Long.toString(since))
+					.build();
+			HttpResponse<Stream<String>> response = HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.ofLines());
+			try (Stream<String> lines = response.body()) {
+				assertThat(lines.filter(line -> line.startsWith("event:")).findFirst()).contains("event:CREATED");
+			}
+		} finally {
+			itemService.deleteById(saved.getId());
+		}
+	}
+
+	@Test
+	void statusCounts_reconcile_correctsChangesMadeBehindTheService() {
+		Long id = restTemplate.postForEntity("/api/items", new Item(null, "Drift", "Desc", "STATS_DRIFT", "drift@test.com"), Item.class).getBody().getId();
+		jdbcTemplate.update("UPDATE item SET status = 'STATS_SQL' WHERE id = ?", id);
+		assertThat(itemStatusCounters.snapshot()).containsEntry("STATS_DRIFT", 1L).doesNotContainKey("STATS_SQL");
+
+		itemStatusCounters.reconcile();
+
+		assertThat(itemStatusCounters.snapshot()).containsEntry("STATS_SQL", 1L).doesNotContainKey("STATS_DRIFT");
+	}
+
+	@Test
+	void getItemById_servesCachedJson_untilTheItemChanges() throws Exception {
+		Long id = restTemplate.postForEntity("/api/items", new Item(null, "Json", "Desc", "NEW", "json@test.com"), Item.class).getBody().getId();
+		double hitsBefore = jsonCacheGets("hit");
+
+		assertThat(restTemplate.getForEntity("/api/items/" + id, String.class).getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_JSON);
+		assertThat(restTemplate.getForEntity("/api/items/" + id, Item.class).getBody().getName()).isEqualTo("Json");
+		assertThat(jsonCacheGets("hit")).isEqualTo(hitsBefore + 1);
+
+		restTemplate.exchange("/api/items/" + id, HttpMethod.PUT, new HttpEntity<>(new Item(null, "Json2", "Desc", "NEW", "json@test.com")), Item.class);
+		assertThat(restTemplate.getForEntity("/api/items/" + id, Item.class).getBody().getName()).isEqualTo("Json2");
+
+		itemService.processAsync(new ProcessingOptions(ProcessingMode.PER_ITEM, 100, true), false).get(60, TimeUnit.SECONDS);
+		assertThat(restTemplate.getForEntity("/api/items/" + id, Item.class).getBody().getStatus()).isEqualTo("PROCESSED");
+
+		restTemplate.delete("/api/items/" + id);
+		assertThat(restTemplate.getForEntity("/api/items/" + id, String.class).getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+	}
+
+	@Test
+	void exportAndImport_roundTripThroughNdjsonFile() throws Exception {
+		restTemplate.postForEntity("/api/items", new Item(null, "Export1", "Desc", "EXPORTED", "export1@test.com"), Item.class);
+		restTemplate.postForEntity("/api/items", new Item(null, "Export2", "Desc", "EXPORTED", "export2@test.com"), Item.class);
+
+		ResponseEntity<ItemTransferResult> exported = restTemplate.postForEntity("/api/items/export?file=items.ndjson", null, ItemTransferResult.class);
+		assertThat(exported.getStatusCode()).isEqualTo(HttpStatus.OK);
+		List<String> lines = Files.readAllLines(Path.of("target/transfer/items.ndjson"));
+		assertThat(lines).hasSize((int) exported.getBody().getItemCount());
+		assertThat(lines.stream().filter(line -> line.contains("\"EXPORTED\""))).hasSize(2);
+		assertThat(Path.of("target/transfer/items.ndjson.partial")).doesNotExist();
+
+		// Two exported lines, one broken line and one invalid item
+		List<String> toImport = new ArrayList<>(lines.stream().filter(line -> line.contains("\"EXPORTED\"")).toList());
+		toImport.add(1, "{\"name\": ");
+		toImport.add("{\"name\":\"Bad\",\"status\":\"EXPORTED\",\"email\":\"not-an-email\"}");
+		Files.write(Path.of("target/transfer/import.ndjson"), toImport);
+
+		ResponseEntity<ItemTransferResult> imported = restTemplate.postForEntity("/api/items/import?file=import.ndjson", null, ItemTransferResult.class);
+		assertThat(imported.getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(imported.getBody().getItemCount()).isEqualTo(2);
+		assertThat(imported.getBody().getRejectedCount()).isEqualTo(2);
+		assertThat(imported.getBody().getRejectedLines()).containsExactly(2L, 4L);
+		assertThat(itemStatusCounters.snapshot()).containsEntry("EXPORTED", 4L);
+
+		assertThat(restTemplate.postForEntity("/api/items/import?file=../pom.xml", null, ItemTransferResult.class).getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+		assertThat(restTemplate.postForEntity("/api/items/import?file=missing.ndjson", null, ItemTransferResult.class).getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+
+		// An I/O failure is a 500, not an empty 200: a non-empty directory cannot be replaced by the export
+		Files.createDirectories(Path.of("target/transfer/occupied.ndjson/child"));
+		assertThat(restTemplate.postForEntity("/api/items/export?file=occupied.ndjson", null, ItemTransferResult.class).getStatusCode()).isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR);
+		assertThat(Path.of("target/transfer/occupied.ndjson.partial")).doesNotExist();
+	}
+
+	@Test
+	void statusCounts_reconcileDuringConcurrentWrites_staysExact() throws Exception {
+		Set<Long> ids = ConcurrentHashMap.newKeySet();
+		List<CompletableFuture<Void>> writers = new ArrayList<>();
+		for (int w = 0; w < 4; w++) {
+			int writer = w;
+			writers.add(CompletableFuture.runAsync(() -> {
+				for (int i = 0; i < 100; i++) {
+					Item saved = itemService.save(new Item(null, "Race", "Desc", "STATS_RACE", "race" + writer + "-" + i + "@test.com"));
+					ids.add(saved.getId());
+					if (i % 2 == 0) {
+						itemService.update(saved.getId(), new Item(null, "Race", "Desc", "STATS_RACED", "race@test.com"), null);
+					}
+				}
+			}));
+		}
+		CompletableFuture<Void> all = CompletableFuture.allOf(writers.toArray(CompletableFuture[]::new));
+		while (!all.isDone()) {
+			itemStatusCounters.reconcile();
+		}
+		all.get(60, TimeUnit.SECONDS);
+
+		assertThat(itemStatusCounters.snapshot()).containsEntry("STATS_RACE", 200L).containsEntry("STATS_RACED", 200L);
+		itemService.deleteAllById(ids);
+	}
+
+	@Test
+	void adaptiveConcurrencyLimit_backsOffOnFailure_andGrowsWhileInUse() {
+		AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(2, 1, 4, 1000, 0.5);
+		long start = System.nanoTime();
+
+		assertThat(limit.tryAcquire()).isTrue();
+		assertThat(limit.tryAcquire()).isTrue();
+		assertThat(limit.tryAcquire()).isFalse();
+
+		limit.release(start, true);
+		limit.release(start, true); // admitted before the cut, so it does not cut again
+		assertThat(limit.getLimit()).isEqualTo(1);
+		assertThat(limit.getInFlight()).isZero();
+
+		assertThat(limit.tryAcquire()).isTrue();
+		limit.release(System.nanoTime(), false);
+		assertThat(limit.getLimit()).isEqualTo(2);
+	}
+
+	@Test
+	void admissionControl_batchLimitReached_rejectsBatchButAdmitsReads() {
+		Long id = restTemplate.postForEntity("/api/items", new Item(null, "Admitted", "Desc", "NEW", "admitted@test.com"), Item.class).getBody().getId();
+		int held = 0;
+		while (batchConcurrencyLimit.tryAcquire()) {
+			held++;
+		}
+		try {
+			ResponseEntity<String> process = restTemplate.getForEntity("/api/items/process?summary=true", String.class);
+
+			assertThat(process.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+			assertThat(process.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("5");
+			assertThat(restTemplate.postForEntity("/api/items/process/jobs", null, String.class).getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+			assertThat(restTemplate.getForEntity("/api/items/" + id, Item.class).getStatusCode()).isEqualTo(HttpStatus.OK);
+		} finally {
+			for (int i = 0; i < held; i++) {
+				batchConcurrencyLimit.release(System.nanoTime(), false);
+			}
+		}
+	}
+
+	@Test
+	void idRangeCursor_concurrentClaims_coverEveryIdOnce() throws InterruptedException {
+		IdRangeCursor cursor = IdRangeCursor.split(10, 10_009, 4, 7);
+		Set<Long> claimed = ConcurrentHashMap.newKeySet();
+		List<Thread> threads = new ArrayList<>();
+		for (int t = 0; t < 4; t++) {
+			Thread thread = new Thread(() -> {
+				long[] range;
+				while ((range = cursor.claim()) != null) {
+					for (long id = range[0]; id <= range[1]; id++) {
+						assertThat(claimed.add(id)).isTrue();
+					}
+				}
+			});
+			threads.add(thread);
+			thread.start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+
+		assertThat(claimed).hasSize(10_000).contains(10L, 10_009L);
+	}
+
+	@Test
+	void processingExecutor_virtualThreads_fallBackToPlatformThreadsBeforeJava21() {
+		AsyncTaskExecutor executor = ProcessingExecutorConfig.createExecutor(true, 2, 10, 1);
+
+		assertThat(executor).isInstanceOf(ProcessingExecutorConfig.virtualThreadsSupported()
+				? SimpleAsyncTaskExecutor.class : ThreadPoolTaskExecutor.class);
+	}
+
+	@Test
+	void processingJob_submitAndPoll_completesWithProgress() throws InterruptedException {
+		restTemplate.postForEntity("/api/items", new Item(null, "Job", "Desc", "INIT", "job@test.com"), Item.class);
+
+		ResponseEntity<ProcessingJobStatus> submitted = restTemplate.postForEntity("/api/items/process/jobs?mode=CHUNKED", null, ProcessingJobStatus.class);
+
+		assertThat(submitted.getStatusCode()).isEqualTo(HttpStatus.ACCEPTED);
+		assertThat(submitted.getHeaders().getLocation()).isNotNull();
+		String jobId = submitted.getBody().getJobId();
+
+		ProcessingJobStatus status = awaitJob(jobId);
+		assertThat(status.getState()).isEqualTo(ProcessingJob.State.COMPLETED);
+		assertThat(status.getProcessedCount()).isGreaterThanOrEqualTo(1);
+		assertThat(status.getRemainingCount()).isZero();
+		assertThat(status.getFinishedAt()).isNotNull();
+	}
+
+	@Test
+	void processingJob_cancel_stopsRunOrReportsFinished() throws InterruptedException {
+		for (int i = 0; i < 30; i++) {
+			restTemplate.postForEntity("/api/items", new Item(null, "Cancel" + i, "Desc", "INIT", "cancel" + i + "@test.com"), Item.class);
+		}
+		String jobId = restTemplate.postForEntity("/api/items/process/jobs", null, ProcessingJobStatus.class).getBody().getJobId();
+
+		ResponseEntity<ProcessingJobStatus> cancel = restTemplate.exchange("/api/items/process/jobs/" + jobId, HttpMethod.DELETE, null, ProcessingJobStatus.class);
+		ProcessingJobStatus status = awaitJob(jobId);
+
+		if (cancel.getStatusCode() == HttpStatus.ACCEPTED) {
+			assertThat(status.getState()).isEqualTo(ProcessingJob.State.CANCELLED);
+		} else {
+			assertThat(cancel.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+			assertThat(status.getState()).isEqualTo(ProcessingJob.State.COMPLETED);
+		}
+	}
+
+	@Test
+	void processingJob_maxRunningReached_rejectsUntilOneFinishes() throws InterruptedException {
+		List<Item> items = new ArrayList<>();
+		for (int i = 0; i < 200; i++) {
+			items.add(new Item(null, "Capped" + i, "Desc", "NEW", "capped" + i + "@test.com"));
+		}
+		List<Long> ids = itemService.createAll(items).stream().map(Item::getId).toList();
+		List<String> running = new ArrayList<>();
+		try {
+			ResponseEntity<ProcessingJobStatus> submitted;
+			while ((submitted = restTemplate.postForEntity("/api/items/process/jobs", null, ProcessingJobStatus.class))
+					.getStatusCode() == HttpStatus.ACCEPTED) {
+				running.add(submitted.getBody().getJobId());
+			}
+
+			assertThat(running).hasSize(2);
+			assertThat(submitted.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+			assertThat(submitted.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("5");
+
+			restTemplate.delete("/api/items/process/jobs/" + running.get(0));
+			awaitJob(running.remove(0));
+			submitted = restTemplate.postForEntity("/api/items/process/jobs", null, ProcessingJobStatus.class);
+			assertThat(submitted.getStatusCode()).isEqualTo(HttpStatus.ACCEPTED);
+			running.add(submitted.getBody().getJobId());
+		} finally {
+			for (String jobId : running) {
+				restTemplate.delete("/api/items/process/jobs/" + jobId);
+				awaitJob(jobId);
+			}
+			itemService.deleteAllById(ids);
+		}
+	}
+
+	@Test
+	void processingJob_unknownId_returnsNotFound() {
+		ResponseEntity<ProcessingJobStatus> status = restTemplate.getForEntity("/api/items/process/jobs/missing", ProcessingJobStatus.class);
+		ResponseEntity<Void> cancel = restTemplate.exchange("/api/items/process/jobs/missing", HttpMethod.DELETE, null, Void.class);
+
+		assertThat(status.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+		assertThat(cancel.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+	}
+
+	@Test
+	void getItemById_repeatedReads_areServedFromCache() {
+		Long id = restTemplate.postForEntity("/api/items", new Item(null, "Hot", "Desc", "NEW", "hot@cache.com"), Item.class).getBody().getId();
+		com.github.benmanes.caffeine.cache.Cache<Object, Object> cache = ((CaffeineCache) cacheManager.getCache(ItemService.ITEM_CACHE)).getNativeCache();
+		long hitsBefore = cache.stats().hitCount();
+
+		for (int i = 0; i < 3; i++) {
+			assertThat(restTemplate.getForEntity("/api/items/" + id, Item.class).getStatusCode()).isEqualTo(HttpStatus.OK);
+		}
+
+		assertThat(cache.stats().hitCount() - hitsBefore).isGreaterThanOrEqualTo(3);
+	}
+
+	@Test
+	void getItemById_afterUpdateDeleteAndProcessing_isNeverStale() {
+		Long id = restTemplate.postForEntity("/api/items", new Item(null, "Fresh", "Desc", "NEW", "fresh@cache.com"), Item.class).getBody().getId();
+		restTemplate.getForEntity("/api/items/" + id, Item.class);
+
+		restTemplate.exchange("/api/items/" + id, HttpMethod.PUT, new HttpEntity<>(new Item(null, "Fresh", "Desc", "CHANGED", "fresh@cache.com")), Item.class);
+		assertThat(restTemplate.getForEntity("/api/items/" + id, Item.class).getBody().getStatus()).isEqualTo("CHANGED");
+
+		restTemplate.getForEntity("/api/items/process?mode=CHUNKED", Item[].class);
+		assertThat(restTemplate.getForEntity("/api/items/" + id, Item.class).getBody().getStatus()).isEqualTo("PROCESSED");
+
+		restTemplate.delete("/api/items/" + id);
+		assertThat(restTemplate.getForEntity("/api/items/" + id, Item.class).getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+	}
+
+	@Test
+	void getAllItems_keysetPagination_walksEveryItemOnce() {
+		for (int i = 0; i < 5; i++) {
+			restTemplate.postForEntity("/api/items", new Item(null, "Page" + i, "Desc", "NEW", "page" + i + "@test.com"), Item.class);
+		}
+		int total = restTemplate.getForEntity("/api/items", Item[].class).getBody().length;
+
+		Set<Long> seen = new HashSet<>();
+		String url = "/api/items?limit=2";
+		while (url != null) {
+			ResponseEntity<Item[]> page = restTemplate.getForEntity(url, Item[].class);
+			assertThat(page.getStatusCode()).isEqualTo(HttpStatus.OK);
+			assertThat(page.getBody().length).isLessThanOrEqualTo(2);
+			for (Item item : page.getBody()) {
+				assertThat(seen.add(item.getId())).isTrue();
+			}
+			String next = page.getHeaders().getFirst("X-Next-Cursor");
+			url = next == null ? null : "/api/items?limit=2&cursor=" + next;
+		}
+
+		assertThat(seen).hasSize(total);
+	}
+
+	@Test
+	void getAllItems_malformedCursor_returnsBadRequest() {
+		ResponseEntity<String> response = restTemplate.getForEntity("/api/items?cursor=not-a-cursor", String.class);
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+	}
+
+	@Test
+	void searchItems_filtersOnServerAndPages() {
+		Item first = restTemplate.postForEntity("/api/items", new Item(null, "Srch_one", "Desc", "FOUND", "srch.one@find.com"), Item.class).getBody();
+		Item second = restTemplate.postForEntity("/api/items", new Item(null, "Srch_two", "Desc", "FOUND", "srch.two@find.com"), Item.class).getBody();
+		restTemplate.postForEntity("/api/items", new Item(null, "SrchXthree", "Desc", "FOUND", "srch.three@find.com"), Item.class);
+		restTemplate.postForEntity("/api/items", new Item(null, "Srch_four", "Desc", "LOST", "srch.four@find.com"), Item.class);
+
+		// "_" is matched literally, not as a LIKE wildcard
+		ResponseEntity<ItemSummary[]> page = restTemplate.getForEntity("/api/items/search?namePrefix=Srch_&status=FOUND&limit=1", ItemSummary[].class);
+		assertThat(page.getBody()).extracting(ItemSummary::getId).containsExactly(first.getId());
+		String next = page.getHeaders().getFirst(HttpHeaders.LINK);
+		assertThat(next).contains("namePrefix=Srch_").contains("status=FOUND");
+
+		ResponseEntity<ItemSummary[]> nextPage = restTemplate.getForEntity("/api/items/search?namePrefix=Srch_&status=FOUND&limit=1&cursor="
+				+ page.getHeaders().getFirst("X-Next-Cursor"), ItemSummary[].class);
+		assertThat(nextPage.getBody()).extracting(ItemSummary::getId).containsExactly(second.getId());
+		assertThat(nextPage.getHeaders().getFirst("X-Next-Cursor")).isNull();
+
+		ResponseEntity<ItemSummary[]> byEmail = restTemplate.getForEntity("/api/items/search?email=srch.two@find.com", ItemSummary[].class);
+		assertThat(byEmail.getBody()).extracting(ItemSummary::getName).containsExactly("Srch_two");
+		ResponseEntity<ItemSummary[]> byEmailPrefix = restTemplate.getForEntity("/api/items/search?emailPrefix=srch.t", ItemSummary[].class);
+		assertThat(byEmailPrefix.getBody()).hasSize(2);
+	}
+
+	@Test
+	void streamItems_returnsOneJsonLinePerItem() {
+		restTemplate.postForEntity("/api/items", new Item(null, "Streamed", "Desc", "NEW", "stream@test.com"), Item.class);
+		int total = restTemplate.getForEntity("/api/items", Item[].class).getBody().length;
+
+		ResponseEntity<String> response = restTemplate.getForEntity("/api/items/stream", String.class);
+
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(response.getHeaders().getContentType().toString()).startsWith("application/x-ndjson");
+		assertThat(response.getBody().lines().filter(line -> !line.isBlank()).count()).isEqualTo(total);
+		assertThat(response.getBody()).contains("\"name\":\"Streamed\"");
+	}
+
+	@Test
+	void prometheusEndpoint_exposesLatencyProcessingAndExecutorMetrics() {
+		Long id = restTemplate.postForEntity("/api/items", new Item(null, "Metered", "Desc", "NEW", "metered@test.com"), Item.class).getBody().getId();
+		restTemplate.getForEntity("/api/items/" + id, Item.class);
+		restTemplate.getForEntity("/api/items/process", Item[].class);
+
+		ResponseEntity<String> response = restTemplate.getForEntity("/actuator/prometheus", String.class);
+
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(response.getBody())
+				.contains("http_server_requests_seconds{")
+				.contains("uri=\"/api/items/{id}\"")
+				.contains("quantile=\"0.999\"")
+				.contains("spring_data_repository_invocations_seconds")
+				.contains("items_processing_processed_total")
+				.contains("items_processing_item_seconds")
+				.contains("executor_active_threads{name=\"itemProcessingExecutor\"");
+	}
+
+	@Test
+	void bulkCreate_validatesEachElementAndCreatesTheValidOnes() {
+		List<Item> items = List.of(
+				new Item(null, "Bulk1", "Desc", "NEW", "bulk1@test.com"),
+				new Item(null, "", "Desc", "NEW", "bulk2@test.com"),
+				new Item(null, "Bulk3", "Desc", "NEW", "not-an-email"));
+
+		ResponseEntity<BulkItemResult[]> response = restTemplate.postForEntity("/api/items/bulk", items, BulkItemResult[].class);
+
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.MULTI_STATUS);
+		BulkItemResult[] results = response.getBody();
+		assertThat(results).extracting(BulkItemResult::getStatus).containsExactly(201, 400, 400);
+		assertThat(results[1].getErrors()).anyMatch(error -> error.startsWith("name"));
+		assertThat(results[2].getErrors()).anyMatch(error -> error.startsWith("email"));
+		assertThat(restTemplate.getForEntity("/api/items/" + results[0].getId(), Item.class).getBody().getName()).isEqualTo("Bulk1");
+	}
+
+	@Test
+	void bulkCreate_allValid_returnsCreated() {
+		List<Item> items = new ArrayList<>();
+		for (int i = 0; i < 120; i++) {
+			items.add(new Item(null, "Many" + i, "Desc", "NEW", "many" + i + "@test.com"));
+		}
+
+		ResponseEntity<BulkItemResult[]> response = restTemplate.postForEntity("/api/items/bulk", items, BulkItemResult[].class);
+
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+		assertThat(response.getBody()).hasSize(120).allMatch(result -> result.getId() != null);
+		assertThat(response.getBody()).extracting(BulkItemResult::getId).doesNotHaveDuplicates();
+	}
+
+	@Test
+	void bulkUpdateAndDelete_reportUnknownIdsPerElement() {
+		Long id = restTemplate.postForEntity("/api/items", new Item(null, "BulkUpd", "Desc", "NEW", "bulkupd@test.com"), Item.class).getBody().getId();
+		restTemplate.getForEntity("/api/items/" + id, Item.class);
+
+		List<Item> updates = List.of(
+				new Item(id, "BulkUpd", "Desc", "DONE", "bulkupd@test.com"),
+				new Item(987654321L, "Ghost", "Desc", "DONE", "ghost@test.com"),
+				new Item(null, "NoId", "Desc", "DONE", "noid@test.com"));
+		ResponseEntity<BulkItemResult[]> updated = restTemplate.exchange("/api/items/bulk", HttpMethod.PUT, new HttpEntity<>(updates), BulkItemResult[].class);
+
+		assertThat(updated.getStatusCode()).isEqualTo(HttpStatus.MULTI_STATUS);
+		assertThat(updated.getBody()).extracting(BulkItemResult::getStatus).containsExactly(200, 404, 400);
+		assertThat(restTemplate.getForEntity("/api/items/" + id, Item.class).getBody().getStatus()).isEqualTo("DONE");
+
+		ResponseEntity<BulkItemResult[]> deleted = restTemplate.exchange("/api/items/bulk", HttpMethod.DELETE, new HttpEntity<>(List.of(id, 987654321L)), BulkItemResult[].class);
+
+		assertThat(deleted.getStatusCode()).isEqualTo(HttpStatus.MULTI_STATUS);
+		assertThat(deleted.getBody()).extracting(BulkItemResult::getStatus).containsExactly(204, 404);
+		assertThat(restTemplate.getForEntity("/api/items/" + id, Item.class).getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+	}
+
+	private long repositoryFindByIdCount() {
+		return meterRegistry.get("spring.data.repository.invocations")
+				.tag("repository", "ItemRepository").tag("method", "findById").timers().stream()
+				.mapToLong(Timer::count).sum();
+	}
+
+	private void assertRunSurvivesConcurrentUpdates(ProcessingMode mode) throws Exception {
+		List<Item> items = new ArrayList<>();
+		for (int i = 0; i < 1000; i++) {
+			items.add(new Item(null, "Contended" + i, "Desc", "NEW", "contended" + i + "@test.com"));
+		}
+		List<Long> ids = itemService.createAll(items).stream().map(Item::getId).toList();
+		try {
+			CompletableFuture<ProcessingRun> run = itemService.processAsync(new ProcessingOptions(mode, 100, false), false);
+			// Updates sweep the new rows in ID order, like the run, so they keep hitting the chunk being processed
+			List<CompletableFuture<Void>> editors = new ArrayList<>();
+			for (int e = 0; e < 4; e++) {
+				int offset = e * 25;
+				editors.add(CompletableFuture.runAsync(() -> {
+					for (int i = offset; !run.isDone(); i = (i + 1) % ids.size()) {
+						itemService.update(ids.get(i), new Item(null, "Edited", "Desc", "NEW", "edited@test.com"), null);
+					}
+				}));
+			}
+			assertThat(run.get(60, TimeUnit.SECONDS).getFailedCount()).isZero();
+			CompletableFuture.allOf(editors.toArray(CompletableFuture[]::new)).get(60, TimeUnit.SECONDS);
+		} finally {
+			itemService.deleteAllById(ids);
+		}
+	}
+
+	private double jsonCacheGets(String result) {
+		return meterRegistry.get("cache.gets").tags("cache", "item-json", "result", result).functionCounter().count();
+	}
+
+	private ProcessingJobStatus awaitJob(String jobId) throws InterruptedException {
+		for (int attempt = 0; attempt < 300; attempt++) {
+			ProcessingJobStatus status = restTemplate.getForEntity("/api/items/process/jobs/" + jobId, ProcessingJobStatus.class).getBody();
+			if (status.getState() != ProcessingJob.State.RUNNING) {
+				return status;
+			}
+			Thread.sleep(100);
+		}
+		throw new AssertionError("Job " + jobId + " did not finish");
+	}
+}
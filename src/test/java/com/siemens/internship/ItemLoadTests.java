@@ -0,0 +1,334 @@
+package com.siemens.internship;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Concurrent CRUD traffic against the embedded server while processing runs keep rewriting the table.
+ * <p>
+ * Clients follow an open-loop schedule: each request has an intended send time derived from the target
+ * rate, and its latency is measured from that time rather than from when it was actually sent. A stalled
+ * server therefore shows up as latency for every request that should have gone out meanwhile, instead of
+ * silently lowering the request rate (coordinated omission). Service time, measured from the actual send,
+ * is reported next to it.
+ * <p>
+ * Every client owns the items it creates, so it knows what each of them must look like at the end; the
+ * test then checks them, and the status counters, against the database. The build fails on unexpected
+ * responses, lost writes, or when p99 latency or throughput miss their SLOs.
+ * <p>
+ * The defaults are a short smoke run that fits the normal test phase. A soak run only needs other settings, e.g.
+ * {@code mvn test -Dtest=ItemLoadTests -Dload.duration-seconds=1800 -Dload.rate=400 -Dload.clients=200}.
+ * Settings: load.rate (requests/s), load.clients, load.duration-seconds, load.warmup-seconds,
+ * load.mix (weights, e.g. read:60,list:5,create:15,update:15,delete:5), load.process-interval-ms,
+ * load.slo.p99-ms and load.slo.min-throughput-ratio (share of load.rate that must be achieved).
+ * Clients run on virtual threads when the JDK has them.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+		"spring.datasource.url=jdbc:h2:mem:load-tests",
+		"items.processing.simulated-delay-ms=0"
+})
+class ItemLoadTests {
+
+	private enum Operation { READ, LIST, CREATE, UPDATE, DELETE }
+
+	// Unexpected responses kept for the failure message
+	private static final int MAX_ERRORS_KEPT = 20;
+
+	@LocalServerPort
+	private int port;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private ItemRepository itemRepository;
+
+	@Autowired
+	private ItemStatusCounters itemStatusCounters;
+
+	private final HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+
+	private final Queue<String> errors = new ConcurrentLinkedQueue<>();
+
+	@Test
+	void mixedCrudAndProcessing_meetLatencyAndThroughputSlos() throws Exception {
+		double rate = Double.parseDouble(System.getProperty("load.rate", "50"));
+		int clients = Integer.getInteger("load.clients", 16);
+		long durationNanos = TimeUnit.SECONDS.toNanos(Long.getLong("load.duration-seconds", 10));
+		long warmupNanos = TimeUnit.SECONDS.toNanos(Long.getLong("load.warmup-seconds", 2));
+		Map<Operation, Integer> mix = parseMix(System.getProperty("load.mix", "read:60,list:5,create:15,update:15,delete:5"));
+		long processIntervalMs = Long.getLong("load.process-interval-ms", 1000);
+		double sloP99Ms = Double.parseDouble(System.getProperty("load.slo.p99-ms", "1000"));
+		double sloThroughputRatio = Double.parseDouble(System.getProperty("load.slo.min-throughput-ratio", "0.9"));
+
+		long intervalNanos = (long) (clients * 1e9 / rate);
+		long start = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(100);
+		long measureFrom = start + warmupNanos;
+		long end = measureFrom + durationNanos;
+
+		List<Client> clientStates = new ArrayList<>();
+		for (int i = 0; i < clients; i++) {
+			clientStates.add(new Client(i));
+		}
+		Histogram processLatency = new Histogram(3);
+		ExecutorService executor = newClientExecutor(clients + 1);
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (Client client : clientStates) {
+				long firstSend = start + intervalNanos * client.index / clients; // spread clients over one interval
+				futures.add(executor.submit(() -> client.run(firstSend, intervalNanos, measureFrom, end, mix)));
+			}
+			futures.add(executor.submit(() -> runProcessing(processIntervalMs, end, processLatency)));
+			for (Future<?> future : futures) {
+				future.get(durationNanos + warmupNanos + TimeUnit.MINUTES.toNanos(2), TimeUnit.NANOSECONDS);
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+
+		Map<Operation, Histogram> latency = new EnumMap<>(Operation.class);
+		Map<Operation, Histogram> serviceTime = new EnumMap<>(Operation.class);
+		Histogram allLatency = new Histogram(3);
+		for (Operation operation : Operation.values()) {
+			latency.put(operation, new Histogram(3));
+			serviceTime.put(operation, new Histogram(3));
+		}
+		for (Client client : clientStates) {
+			for (Operation operation : Operation.values()) {
+				latency.get(operation).add(client.latency.get(operation));
+				serviceTime.get(operation).add(client.serviceTime.get(operation));
+				allLatency.add(client.latency.get(operation));
+			}
+		}
+		double throughput = allLatency.getTotalCount() / (durationNanos / 1e9);
+		printReport(latency, serviceTime, allLatency, processLatency, throughput, rate);
+
+		assertThat(errors).as("unexpected responses").isEmpty();
+		verifyItems(clientStates);
+		Map<String, Long> stored = new TreeMap<>();
+		for (ItemStatusCount count : itemRepository.countGroupedByStatus()) {
+			stored.put(count.getStatus(), count.getCount());
+		}
+		assertThat(itemStatusCounters.snapshot()).as("status counters").isEqualTo(stored);
+		assertThat(allLatency.getValueAtPercentile(99) / 1e6).as("p99 latency in ms").isLessThanOrEqualTo(sloP99Ms);
+		assertThat(throughput).as("requests per second").isGreaterThanOrEqualTo(rate * sloThroughputRatio);
+	}
+
+	// One user: sends its share of the load on its own schedule and remembers what its items should hold
+	private class Client {
+
+		private final int index;
+		private final Map<Operation, Histogram> latency = new EnumMap<>(Operation.class);
+		private final Map<Operation, Histogram> serviceTime = new EnumMap<>(Operation.class);
+		private final Map<Long, String> names = new LinkedHashMap<>();
+		private final List<Long> live = new ArrayList<>();
+		private final List<Long> deleted = new ArrayList<>();
+		private int sequence;
+
+		Client(int index) {
+			this.index = index;
+			for (Operation operation : Operation.values()) {
+				latency.put(operation, new Histogram(3));
+				serviceTime.put(operation, new Histogram(3));
+			}
+		}
+
+		void run(long firstSend, long intervalNanos, long measureFrom, long end, Map<Operation, Integer> mix) {
+			for (long intended = firstSend; intended < end; intended += intervalNanos) {
+				long wait = intended - System.nanoTime();
+				if (wait > 0) {
+					LockSupport.parkNanos(wait);
+				}
+				Operation operation = pick(mix);
+				long sent = System.nanoTime();
+				try {
+					send(operation);
+				} catch (Exception e) {
+					error(operation + " failed: " + e);
+				}
+				long done = System.nanoTime();
+				if (intended >= measureFrom) {
+					latency.get(operation).recordValue(done - intended);
+					serviceTime.get(operation).recordValue(done - sent);
+				}
+			}
+		}
+
+		private void send(Operation operation) throws Exception {
+			if (live.isEmpty() && operation != Operation.LIST) {
+				operation = Operation.CREATE;
+			}
+			switch (operation) {
+				case CREATE -> {
+					String name = "load-" + index + "-" + sequence++;
+					HttpResponse<String> response = request("POST", "/api/items", item(name));
+					if (expect(operation, response, 201)) {
+						Long id = objectMapper.readValue(response.body(), Item.class).getId();
+						live.add(id);
+						names.put(id, name);
+					}
+				}
+				case READ -> {
+					Long id = randomLive();
+					HttpResponse<String> response = request("GET", "/api/items/" + id, null);
+					if (expect(operation, response, 200) && !objectMapper.readValue(response.body(), Item.class).getName().equals(names.get(id))) {
+						error("GET " + id + " returned a stale name: " + response.body());
+					}
+				}
+				case LIST -> expect(operation, request("GET", "/api/items?limit=20", null), 200);
+				case UPDATE -> {
+					Long id = randomLive();
+					String name = "load-" + index + "-" + sequence++;
+					if (expect(operation, request("PUT", "/api/items/" + id, item(name)), 200)) {
+						names.put(id, name);
+					}
+				}
+				case DELETE -> {
+					Long id = live.remove(ThreadLocalRandom.current().nextInt(live.size()));
+					if (expect(operation, request("DELETE", "/api/items/" + id, null), 204)) {
+						names.remove(id);
+						deleted.add(id);
+					}
+				}
+			}
+		}
+
+		private Long randomLive() {
+			return live.get(ThreadLocalRandom.current().nextInt(live.size()));
+		}
+
+		private String item(String name) throws Exception {
+			return objectMapper.writeValueAsString(new Item(null, name, "Load test", "NEW", name + "@load.test"));
+		}
+	}
+
+	// Full processing runs on the batch endpoint; admission control may turn some of them away
+	private void runProcessing(long intervalMs, long end, Histogram processLatency) {
+		while (System.nanoTime() < end) {
+			long sent = System.nanoTime();
+			try {
+				HttpResponse<String> response = request("GET", "/api/items/process?summary=true", null);
+				if (response.statusCode() != 200 && response.statusCode() != 503) {
+					error("process returned " + response.statusCode() + ": " + response.body());
+				}
+			} catch (Exception e) {
+				error("process failed: " + e);
+			}
+			processLatency.recordValue(System.nanoTime() - sent);
+			LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(intervalMs));
+		}
+	}
+
+	private void verifyItems(List<Client> clients) throws Exception {
+		for (Client client : clients) {
+			for (Map.Entry<Long, String> expected : client.names.entrySet()) {
+				HttpResponse<String> response = request("GET", "/api/items/" + expected.getKey(), null);
+				assertThat(response.statusCode()).as("GET " + expected.getKey()).isEqualTo(200);
+				assertThat(objectMapper.readValue(response.body(), Item.class).getName())
+						.as("name of " + expected.getKey()).isEqualTo(expected.getValue());
+			}
+			for (Long id : client.deleted) {
+				assertThat(request("GET", "/api/items/" + id, null).statusCode()).as("GET deleted " + id).isEqualTo(404);
+			}
+		}
+	}
+
+	private HttpResponse<String> request(String method, String path, String json) throws Exception {
+		HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+				.timeout(Duration.ofSeconds(30));
+		if (json != null) {
+			builder.header("Content-Type", "application/json").method(method, HttpRequest.BodyPublishers.ofString(json));
+		} else {
+			builder.method(method, HttpRequest.BodyPublishers.noBody());
+		}
+		return http.send(builder.build(), HttpResponse.BodyHandlers.ofString());
+	}
+
+	private boolean expect(Operation operation, HttpResponse<String> response, int status) {
+		if (response.statusCode() == status) {
+			return true;
+		}
+		error(operation + " " + response.uri().getPath() + " returned " + response.statusCode() + ": " + response.body());
+		return false;
+	}
+
+	private void error(String message) {
+		if (errors.size() < MAX_ERRORS_KEPT) {
+			errors.add(message);
+		}
+	}
+
+	private static Operation pick(Map<Operation, Integer> mix) {
+		int total = mix.values().stream().mapToInt(Integer::intValue).sum();
+		int roll = ThreadLocalRandom.current().nextInt(total);
+		for (Map.Entry<Operation, Integer> entry : mix.entrySet()) {
+			roll -= entry.getValue();
+			if (roll < 0) {
+				return entry.getKey();
+			}
+		}
+		throw new IllegalStateException("Empty request mix");
+	}
+
+	private static Map<Operation, Integer> parseMix(String mix) {
+		Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+		for (String part : mix.split(",")) {
+			String[] entry = part.trim().split(":");
+			weights.put(Operation.valueOf(entry[0].trim().toUpperCase()), Integer.parseInt(entry[1].trim()));
+		}
+		return weights;
+	}
+
+	// Virtual threads on JDK 21+, otherwise one platform thread per client
+	private static ExecutorService newClientExecutor(int threads) {
+		try {
+			return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+		} catch (ReflectiveOperationException e) {
+			return Executors.newFixedThreadPool(threads);
+		}
+	}
+
+	private static void printReport(Map<Operation, Histogram> latency, Map<Operation, Histogram> serviceTime, Histogram all,
+									Histogram process, double throughput, double targetRate) {
+		System.out.printf("%n%-8s %8s %9s %9s %9s %9s %12s%n", "op", "count", "p50 ms", "p99 ms", "p99.9 ms", "max ms", "svc p99 ms");
+		for (Operation operation : Operation.values()) {
+			printRow(operation.name(), latency.get(operation), serviceTime.get(operation));
+		}
+		printRow("ALL", all, null);
+		printRow("PROCESS", process, process);
+		System.out.printf("throughput %.1f requests/s (target %.1f)%n%n", throughput, targetRate);
+	}
+
+	private static void printRow(String name, Histogram histogram, Histogram serviceTime) {
+		System.out.printf("%-8s %8d %9.1f %9.1f %9.1f %9.1f %12s%n", name, histogram.getTotalCount(),
+				histogram.getValueAtPercentile(50) / 1e6, histogram.getValueAtPercentile(99) / 1e6,
+				histogram.getValueAtPercentile(99.9) / 1e6, histogram.getMaxValue() / 1e6,
+				serviceTime != null ? String.format("%.1f", serviceTime.getValueAtPercentile(99) / 1e6) : "-");
+	}
+}
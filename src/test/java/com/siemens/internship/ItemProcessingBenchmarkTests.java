@@ -0,0 +1,77 @@
+package com.siemens.internship;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares PER_ITEM and CHUNKED processing throughput on H2.
+ * Disabled by default because the larger sizes take minutes; run it with
+ * {@code mvn test -Dtest=ItemProcessingBenchmarkTests -Dbenchmarks=true [-Dbenchmark.sizes=10000,100000,1000000]}.
+ * The simulated per-item delay is switched off so both modes measure database work only.
+ */
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:processing-benchmark",
+		"items.processing.simulated-delay-ms=0"
+})
+@EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+class ItemProcessingBenchmarkTests {
+
+	private static final Logger log = LoggerFactory.getLogger(ItemProcessingBenchmarkTests.class);
+
+	private static final int INSERT_BATCH = 10_000;
+
+	@Autowired
+	private ItemService itemService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void perItemVersusChunkedThroughput() throws Exception {
+		int[] sizes = Arrays.stream(System.getProperty("benchmark.sizes", "10000,100000,1000000").split(","))
+				.map(String::trim).mapToInt(Integer::parseInt).toArray();
+		int chunkSize = Integer.getInteger("benchmark.chunkSize", 500);
+
+		log.info(String.format("%10s %12s %14s %12s %14s", "rows", "per-item ms", "per-item/s", "chunked ms", "chunked/s"));
+		for (int rows : sizes) {
+			seed(rows);
+			long start = System.nanoTime();
+			List<Item> perItem = itemService.processItemsAsync().get();
+			long perItemNanos = System.nanoTime() - start;
+			assertThat(perItem).hasSize(rows);
+
+			seed(rows);
+			start = System.nanoTime();
+			List<Item> chunked = itemService.processItemsInChunksAsync(chunkSize).get();
+			long chunkedNanos = System.nanoTime() - start;
+			assertThat(chunked).hasSize(rows);
+
+			log.info(String.format("%10d %12d %14.0f %12d %14.0f", rows,
+					perItemNanos / 1_000_000, rows / (perItemNanos / 1e9),
+					chunkedNanos / 1_000_000, rows / (chunkedNanos / 1e9)));
+		}
+	}
+
+	// Bypasses JPA so seeding does not dominate the run; IDs are assigned explicitly
+	private void seed(int rows) {
+		jdbcTemplate.update("DELETE FROM item");
+		for (int from = 1; from <= rows; from += INSERT_BATCH) {
+			List<Object[]> batch = new ArrayList<>(INSERT_BATCH);
+			for (long id = from; id < from + INSERT_BATCH && id <= rows; id++) {
+				batch.add(new Object[]{id, "Item " + id, "Benchmark row", "NEW", "item" + id + "@bench.com", 0L});
+			}
+			jdbcTemplate.batchUpdate("INSERT INTO item (id, name, description, status, email, version) VALUES (?, ?, ?, ?, ?, ?)", batch);
+		}
+	}
+}
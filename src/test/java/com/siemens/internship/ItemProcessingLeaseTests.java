@@ -0,0 +1,129 @@
+package com.siemens.internship;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Two application instances sharing one file-based H2 database, as separate Spring contexts in this JVM.
+ */
+class ItemProcessingLeaseTests {
+
+	private static final int ITEMS = 2000;
+
+	private static ConfigurableApplicationContext instanceA;
+	private static ConfigurableApplicationContext instanceB;
+	private static JdbcTemplate jdbcTemplate;
+
+	@BeforeAll
+	static void startInstances() {
+		String url = "jdbc:h2:file:./target/h2/leases-" + System.nanoTime();
+		instanceA = start(url, "instance-a");
+		instanceB = start(url, "instance-b");
+		jdbcTemplate = instanceA.getBean(JdbcTemplate.class);
+	}
+
+	@AfterAll
+	static void stopInstances() {
+		instanceB.close();
+		instanceA.close();
+	}
+
+	@BeforeEach
+	void seed() {
+		jdbcTemplate.update("DELETE FROM processing_lease");
+		jdbcTemplate.update("DELETE FROM item");
+		List<Object[]> rows = new ArrayList<>(ITEMS);
+		for (long id = 1; id <= ITEMS; id++) {
+			rows.add(new Object[]{id, "Item " + id, "Lease row", "NEW", "item" + id + "@lease.com", 0L});
+		}
+		jdbcTemplate.batchUpdate("INSERT INTO item (id, name, description, status, email, version) VALUES (?, ?, ?, ?, ?, ?)", rows);
+	}
+
+	@Test
+	void twoInstances_shareOneRun_processEveryItemOnce() throws Exception {
+		ProcessingOptions options = new ProcessingOptions(ProcessingMode.LEASED, 50, false);
+
+		CompletableFuture<ProcessingRun> a = instanceA.getBean(ItemService.class).processAsync(options, false);
+		CompletableFuture<ProcessingRun> b = instanceB.getBean(ItemService.class).processAsync(options, false);
+
+		long processed = a.get(60, TimeUnit.SECONDS).getProcessedCount() + b.get(60, TimeUnit.SECONDS).getProcessedCount();
+		assertThat(processed).isEqualTo(ITEMS);
+		// Every write bumps the version, so a range processed twice would show up here
+		assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM item WHERE version = 1 AND status = 'PROCESSED'", Long.class))
+				.isEqualTo(ITEMS);
+		assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM processing_lease WHERE done = false", Long.class)).isZero();
+	}
+
+	@Test
+	void expiredLease_ofDeadInstance_isTakenOver() throws Exception {
+		// A run whose only range was claimed by an instance that died before finishing it
+		jdbcTemplate.update("INSERT INTO processing_lease (id, range_from, range_to, incremental, owner, expires_at, done) VALUES (?, ?, ?, ?, ?, ?, ?)",
+				0L, 1L, (long) ITEMS, false, "instance-dead", Timestamp.from(Instant.now().minusSeconds(60)), false);
+
+		ProcessingRun run = instanceB.getBean(ItemService.class)
+				.processAsync(new ProcessingOptions(ProcessingMode.LEASED, 50, false), false).get(60, TimeUnit.SECONDS);
+
+		assertThat(run.getProcessedCount()).isEqualTo(ITEMS);
+		assertThat(jdbcTemplate.queryForObject("SELECT owner FROM processing_lease WHERE id = 0", String.class)).isEqualTo("instance-b");
+	}
+
+	@Test
+	void lateInstance_whileEveryRangeIsClaimed_joinsTheRun() throws Exception {
+		// Instance A holds live leases on every range; one is finished, the other still in progress
+		Timestamp live = Timestamp.from(Instant.now().plusSeconds(30));
+		insertLease(0L, 1L, ITEMS / 2, "instance-a", live, false);
+		insertLease(1L, ITEMS / 2 + 1, ITEMS, "instance-a", live, true);
+
+		CompletableFuture<ProcessingRun> late = instanceB.getBean(ItemService.class)
+				.processAsync(new ProcessingOptions(ProcessingMode.LEASED, 50, false), false);
+		Thread.sleep(500);
+		assertThat(late).isNotDone(); // waiting for instance A
+		jdbcTemplate.update("UPDATE processing_lease SET done = true WHERE id = 0");
+
+		assertThat(late.get(60, TimeUnit.SECONDS).getProcessedCount()).isZero();
+		assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM item WHERE version = 0", Long.class)).isEqualTo(ITEMS);
+	}
+
+	@Test
+	void lateInstance_justAfterTheRunFinished_doesNotStartItOver() throws Exception {
+		Timestamp live = Timestamp.from(Instant.now().plusSeconds(30));
+		insertLease(0L, 1L, ITEMS / 2, "instance-a", live, true);
+		insertLease(1L, ITEMS / 2 + 1, ITEMS, "instance-a", live, true);
+
+		ProcessingRun late = instanceB.getBean(ItemService.class)
+				.processAsync(new ProcessingOptions(ProcessingMode.LEASED, 50, false), false).get(60, TimeUnit.SECONDS);
+
+		assertThat(late.getProcessedCount()).isZero();
+		assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM item WHERE version = 0", Long.class)).isEqualTo(ITEMS);
+	}
+
+	private static void insertLease(long id, long from, long to, String owner, Timestamp expiresAt, boolean done) {
+		jdbcTemplate.update("INSERT INTO processing_lease (id, range_from, range_to, incremental, owner, expires_at, done) VALUES (?, ?, ?, ?, ?, ?, ?)",
+				id, from, to, false, owner, expiresAt, done);
+	}
+
+	private static ConfigurableApplicationContext start(String url, String owner) {
+		return new SpringApplicationBuilder(InternshipApplication.class)
+				.web(WebApplicationType.NONE)
+				.properties(
+						"spring.datasource.url=" + url,
+						"spring.jmx.enabled=false",
+						"items.processing.lease.owner=" + owner)
+				.run();
+	}
+}
@@ -0,0 +1,82 @@
+package com.siemens.internship;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Future;
+
+/**
+ * Throughput of the item processing executor with platform and virtual threads as concurrency rises.
+ * Each task mimics a processing step: a blocking pause followed by a JDBC round trip on a pool sized
+ * to the concurrency limit. Disabled by default; run it with
+ * {@code mvn test -Dtest=ProcessingExecutorBenchmarkTests -Dbenchmarks=true [-Dbenchmark.concurrency=8,32,128,512]}.
+ * Virtual threads are only measured on a Java 21+ runtime.
+ */
+@EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+class ProcessingExecutorBenchmarkTests {
+
+	private static final Logger log = LoggerFactory.getLogger(ProcessingExecutorBenchmarkTests.class);
+
+	@Test
+	void platformVersusVirtualThroughput() throws Exception {
+		int[] levels = Arrays.stream(System.getProperty("benchmark.concurrency", "8,32,128,512").split(","))
+				.map(String::trim).mapToInt(Integer::parseInt).toArray();
+		int tasks = Integer.getInteger("benchmark.tasks", 5000);
+		long pauseMs = Long.getLong("benchmark.pauseMs", 10);
+		boolean virtualSupported = ProcessingExecutorConfig.virtualThreadsSupported();
+
+		log.info(String.format("%12s %14s %14s", "concurrency", "platform/s", "virtual/s"));
+		for (int concurrency : levels) {
+			double platform = measure(false, concurrency, tasks, pauseMs);
+			String virtual = virtualSupported ? String.format("%.0f", measure(true, concurrency, tasks, pauseMs)) : "n/a";
+			log.info(String.format("%12d %14.0f %14s", concurrency, platform, virtual));
+		}
+	}
+
+	private double measure(boolean virtualThreads, int concurrency, int tasks, long pauseMs) throws Exception {
+		HikariConfig config = new HikariConfig();
+		config.setJdbcUrl("jdbc:h2:mem:executor-benchmark");
+		config.setMaximumPoolSize(concurrency);
+		try (HikariDataSource dataSource = new HikariDataSource(config)) {
+			JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+			AsyncTaskExecutor executor = ProcessingExecutorConfig.createExecutor(virtualThreads, concurrency, concurrency * 2, 30);
+			if (executor instanceof ThreadPoolTaskExecutor pool) {
+				pool.initialize();
+			}
+			try {
+				long start = System.nanoTime();
+				List<Future<?>> futures = new ArrayList<>(tasks);
+				for (int i = 0; i < tasks; i++) {
+					futures.add(executor.submit(() -> {
+						try {
+							Thread.sleep(pauseMs);
+						} catch (InterruptedException e) {
+							Thread.currentThread().interrupt();
+						}
+						jdbcTemplate.queryForObject("SELECT 1", Integer.class);
+					}));
+				}
+				for (Future<?> future : futures) {
+					future.get();
+				}
+				return tasks / ((System.nanoTime() - start) / 1e9);
+			} finally {
+				if (executor instanceof AutoCloseable closeable) {
+					closeable.close();
+				} else if (executor instanceof ThreadPoolTaskExecutor pool) {
+					pool.shutdown();
+				}
+			}
+		}
+	}
+}